@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# Builds blog-service and the JMH benchmarks, runs them and writes the results as JSON to
+# benchmarks/results/<commit>.json, one file per commit, so runs can be diffed over time
+# (e.g. with https://jmh.morethan.io). Extra arguments go to JMH, e.g. a subset and
+# shorter runs:
+#
+#   ./benchmarks/run.sh Markdown -wi 1 -i 3
+#
+# Env: SKIP_BUILD=1 reuses the last build.
+set -euo pipefail
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+OUT="$DIR/results"
+mkdir -p "$OUT"
+
+if [ "${SKIP_BUILD:-0}" != "1" ]; then
+    mvn -B -q -f "$DIR/../pom.xml" install -DskipTests
+    mvn -B -q -f "$DIR/pom.xml" package
+fi
+
+COMMIT=$(git -C "$DIR" rev-parse --short HEAD)
+if [ -n "$(git -C "$DIR/.." status --porcelain -- src)" ]; then
+    COMMIT="$COMMIT-dirty"
+fi
+
+java -jar "$DIR/target/benchmarks.jar" -rf json -rff "$OUT/$COMMIT.json" "$@"
+echo "Results: $OUT/$COMMIT.json"
@@ -0,0 +1,116 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogResponse;
+import rs.ac.uns.ftn.informatika.jpa.Model.Blog;
+import rs.ac.uns.ftn.informatika.jpa.Model.BlogImage;
+import rs.ac.uns.ftn.informatika.jpa.Model.BlogImageVariant;
+import rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus;
+import rs.ac.uns.ftn.informatika.jpa.Util.MarkdownService;
+import rs.ac.uns.ftn.informatika.jpa.Util.SamplePosts;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A feed page on the way out: BlogServiceImpl.mapToResponse per blog (srcset strings included)
+ * and Jackson serialization of the List<BlogResponse>, configured like Spring MVC's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlogResponseBenchmark {
+
+    // Blogs per list; 20 and 100 are the default and maximum feed page sizes
+    @Param({"1", "20", "100"})
+    public int blogs;
+
+    @Param({"3"})
+    public int imagesPerBlog;
+
+    private static final int[] VARIANT_WIDTHS = {320, 640, 1280};
+
+    private BlogServiceImpl service;
+    private ObjectMapper objectMapper;
+    private List<Blog> page;
+    private List<BlogResponse> responses;
+
+    @Setup
+    public void setUp() {
+        // mapToResponse only reads the blog graph; none of the collaborators are touched
+        service = new BlogServiceImpl(null, null, null, null, null, null, null, null, null, null, null);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        String html = new MarkdownService(0).render(SamplePosts.markdown(4096));
+        page = new ArrayList<>(blogs);
+        for (long id = 1; id <= blogs; id++) {
+            page.add(blog(id, html));
+        }
+        responses = mapToResponses();
+    }
+
+    @Benchmark
+    public List<BlogResponse> mapToResponses() {
+        List<BlogResponse> out = new ArrayList<>(page.size());
+        for (Blog blog : page) {
+            out.add(service.mapToResponse(blog));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapToResponses());
+    }
+
+    private Blog blog(long id, String html) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setTitle("Two weeks on the Adriatic, part " + id);
+        blog.setDescriptionHtml(html);
+        blog.setCreatedAt(OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC).plusMinutes(id));
+        blog.setAuthorId(id % 7);
+        for (long i = 0; i < imagesPerBlog; i++) {
+            BlogImage image = new BlogImage();
+            image.setId(id * 100 + i);
+            image.setBlog(blog);
+            image.setStatus(ImageStatus.READY);
+            image.setUrl("http://localhost:8080/files/blobs/" + id + "-" + i + ".jpg");
+            image.setWidth(2400);
+            image.setHeight(1600);
+            for (int width : VARIANT_WIDTHS) {
+                BlogImageVariant variant = new BlogImageVariant();
+                variant.setImage(image);
+                variant.setWidth(width);
+                variant.setHeight(width * 2 / 3);
+                variant.setUrl("http://localhost:8080/files/blobs/" + id + "-" + i + "_w" + width + ".jpg");
+                image.getVariants().add(variant);
+            }
+            blog.getImages().add(image);
+        }
+        return blog;
+    }
+}
@@ -0,0 +1,94 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The upload path on local disk for every image of one post: stageBlogImages (copy plus
+ * SHA-256, on the request thread) followed by commitBlob (move into blobs/, on the ingestion
+ * pool in production). Every invocation uploads new bytes, so commitBlob really moves the
+ * file instead of taking the already-stored shortcut. Uses java.io.tmpdir (override with
+ * -Djava.io.tmpdir to measure another disk); the blobs are deleted after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStorageServiceBenchmark {
+
+    @Param({"65536", "1048576"})
+    public int fileSize;
+
+    @Param({"4"})
+    public int files;
+
+    private Path root;
+    private FileStorageService storage;
+    private List<byte[]> contents;
+    private List<MultipartFile> uploads;
+    private long invocation;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("blog-storage-bench");
+        storage = new FileStorageService(root.toString(), "http://localhost:8080/files", "");
+        Random random = new Random(42);
+        contents = new ArrayList<>(files);
+        uploads = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            byte[] content = new byte[fileSize];
+            random.nextBytes(content);
+            contents.add(content);
+            // MockMultipartFile reads straight from this array, so rewriting it changes the upload
+            uploads.add(new MockMultipartFile("images", "photo-" + i + ".jpg", "image/jpeg", content));
+        }
+    }
+
+    @Benchmark
+    public int stageAndCommit() throws IOException {
+        long n = ++invocation;
+        for (byte[] content : contents) {
+            ByteBuffer.wrap(content).putLong(n);
+        }
+        int committed = 0;
+        for (FileStorageService.StagedFile staged : storage.stageBlogImages(uploads)) {
+            if (storage.commitBlob(staged)) committed++;
+        }
+        return committed;
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteStored() throws IOException {
+        FileSystemUtils.deleteRecursively(root.resolve("blobs"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(root);
+    }
+}
@@ -0,0 +1,61 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MarkdownService.toSafeHtml per post size: a miss runs parse, render and sanitize (plus the
+ * SHA-256 cache key), a hit is the key plus a cache lookup. render() is the pipeline alone,
+ * as used by MarkdownRerenderJob.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkdownServiceBenchmark {
+
+    // Approximate markdown size in bytes
+    @Param({"1024", "16384", "131072"})
+    public int size;
+
+    private String markdown;
+    private MarkdownService cached;
+    private MarkdownService uncached;
+
+    @Setup
+    public void setUp() {
+        markdown = SamplePosts.markdown(size);
+        cached = new MarkdownService(20_000_000);
+        cached.toSafeHtml(markdown);
+        // Weight 0: every entry is evicted right away, so each call is a miss
+        uncached = new MarkdownService(0);
+    }
+
+    @Benchmark
+    public String toSafeHtmlMiss() {
+        return uncached.toSafeHtml(markdown);
+    }
+
+    @Benchmark
+    public String toSafeHtmlHit() {
+        return cached.toSafeHtml(markdown);
+    }
+
+    @Benchmark
+    public String render() {
+        return cached.render(markdown);
+    }
+}
@@ -0,0 +1,45 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+/**
+ * Deterministic travel-blog markdown: headings, emphasis, lists, links, images, a table, code
+ * and some raw HTML the sanitizer has to strip, repeated until the requested size.
+ */
+public final class SamplePosts {
+
+    private static final String SECTION = """
+            ## Day %d: from the old town to the coast
+
+            We left **early** in the morning and took the _scenic_ route along the river. The
+            [guide](https://example.com/guides/%d) recommended three stops:
+
+            1. The market, for *burek* and fresh figs
+            2. The fortress walls at sunset
+            3. A small konoba by the harbour
+
+            ![Harbour at dusk](https://cdn.example.com/blogs/%d/harbour.jpg "Harbour")
+
+            | Stop | Time | Cost |
+            |------|------|------|
+            | Market | 08:30 | 6 EUR |
+            | Fortress | 19:00 | 10 EUR |
+
+            > Pack water, the climb is longer than it looks.
+
+            `Tip:` buses leave every `45 min`.
+
+            <script>alert('x')</script><img src="x" onerror="alert(1)"><a href="javascript:void(0)">click</a>
+
+            """;
+
+    private SamplePosts() {
+    }
+
+    public static String markdown(int approximateBytes) {
+        StringBuilder md = new StringBuilder(approximateBytes + SECTION.length());
+        md.append("# Two weeks on the Adriatic\n\n");
+        for (int day = 1; md.length() < approximateBytes; day++) {
+            md.append(SECTION.formatted(day, day, day));
+        }
+        return md.toString();
+    }
+}
@@ -0,0 +1,72 @@
+// Image serving: FileController (/files/blogs/**) vs. the old resource handler (/files-legacy/blogs/**).
+//
+//   1. start blog-service with app.files.legacy-handler.enabled=true
+//   2. upload a blog with a few images and take one image path, e.g. blogs/1/<uuid>_photo.jpg
+//   3. k6 run -e BASE_URL=http://localhost:8080 -e IMAGE=blogs/1/<uuid>_photo.jpg loadtest/files.js
+//
+// Compare http_req_duration{handler:controller} with {handler:legacy}; the conditional and
+// range scenarios only run against the controller because the legacy handler has no ETag.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const IMAGE = __ENV.IMAGE;
+const VUS = Number(__ENV.VUS || 50);
+const DURATION = __ENV.DURATION || '30s';
+
+if (!IMAGE) {
+    throw new Error('IMAGE is required, e.g. -e IMAGE=blogs/1/<uuid>_photo.jpg');
+}
+
+export const options = {
+    discardResponseBodies: true,
+    scenarios: {
+        legacy_full: { executor: 'constant-vus', vus: VUS, duration: DURATION, exec: 'legacyFull' },
+        controller_full: {
+            executor: 'constant-vus', vus: VUS, duration: DURATION, exec: 'controllerFull', startTime: DURATION,
+        },
+        controller_conditional: {
+            executor: 'constant-vus', vus: VUS, duration: DURATION, exec: 'controllerConditional', startTime: `${2 * parseInt(DURATION)}s`,
+        },
+        controller_range: {
+            executor: 'constant-vus', vus: VUS, duration: DURATION, exec: 'controllerRange', startTime: `${3 * parseInt(DURATION)}s`,
+        },
+    },
+    thresholds: {
+        'checks': ['rate>0.99'],
+    },
+};
+
+let etag = null;
+
+export function legacyFull() {
+    const res = http.get(`${BASE_URL}/files-legacy/${IMAGE}`, { tags: { handler: 'legacy' } });
+    check(res, { 'legacy 200': (r) => r.status === 200 });
+}
+
+export function controllerFull() {
+    const res = http.get(`${BASE_URL}/files/${IMAGE}`, { tags: { handler: 'controller' } });
+    check(res, {
+        'controller 200': (r) => r.status === 200,
+        'has etag': (r) => !!r.headers['Etag'],
+    });
+}
+
+export function controllerConditional() {
+    if (etag === null) {
+        etag = http.head(`${BASE_URL}/files/${IMAGE}`).headers['Etag'];
+    }
+    const res = http.get(`${BASE_URL}/files/${IMAGE}`, {
+        headers: { 'If-None-Match': etag },
+        tags: { handler: 'controller', kind: 'conditional' },
+    });
+    check(res, { 'controller 304': (r) => r.status === 304 });
+}
+
+export function controllerRange() {
+    const res = http.get(`${BASE_URL}/files/${IMAGE}`, {
+        headers: { Range: 'bytes=0-65535' },
+        tags: { handler: 'controller', kind: 'range' },
+    });
+    check(res, { 'controller 206': (r) => r.status === 206 });
+}
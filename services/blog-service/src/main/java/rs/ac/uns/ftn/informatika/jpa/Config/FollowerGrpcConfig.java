@@ -0,0 +1,24 @@
+package rs.ac.uns.ftn.informatika.jpa.Config;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FollowerGrpcConfig {
+    @Value("${app.follower.grpc.host:localhost}")
+    private String host;
+
+    @Value("${app.follower.grpc.port:9091}")
+    private int port;
+
+    // The channel connects lazily, so blog-service still starts when follower-microservice is down
+    @Bean(destroyMethod = "shutdownNow")
+    public ManagedChannel followerChannel() {
+        return ManagedChannelBuilder.forAddress(host, port)
+                .usePlaintext()
+                .build();
+    }
+}
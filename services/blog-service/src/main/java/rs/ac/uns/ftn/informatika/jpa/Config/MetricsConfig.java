@@ -0,0 +1,26 @@
+package rs.ac.uns.ftn.informatika.jpa.Config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import rs.ac.uns.ftn.informatika.jpa.Service.ImageIngestionService;
+import rs.ac.uns.ftn.informatika.jpa.Util.MarkdownService;
+
+@Configuration
+public class MetricsConfig {
+
+    // cache.gets{cache=markdown.html,result=hit|miss}, cache.evictions, cache.size ... on /actuator/metrics
+    @Bean
+    public MeterBinder markdownCacheMetrics(MarkdownService md) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, md.cache(), "markdown.html");
+    }
+
+    // Backlog of images waiting for a worker, the signal behind the 503s on upload
+    @Bean
+    public MeterBinder imageIngestMetrics(ImageIngestionService ingestion) {
+        return registry -> Gauge.builder("blog.images.ingest.queue", ingestion, ImageIngestionService::queueSize)
+                .register(registry);
+    }
+}
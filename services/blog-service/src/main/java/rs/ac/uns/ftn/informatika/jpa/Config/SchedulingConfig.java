@@ -0,0 +1,9 @@
+package rs.ac.uns.ftn.informatika.jpa.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,19 +1,24 @@
 package rs.ac.uns.ftn.informatika.jpa.Config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.*;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+// Images are served by FileController. The old resource handler stays available under
+// /files-legacy/** only to compare the two (loadtest/files.js).
 @Configuration
+@ConditionalOnProperty(name = "app.files.legacy-handler.enabled", havingValue = "true")
 public class StaticFilesConfig implements WebMvcConfigurer {
     @Value("${app.storage.local-root}") String root;
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry reg) {
         Path base = Paths.get(root).toAbsolutePath();
-        reg.addResourceHandler("/files/**")
-                .addResourceLocations("file:" + base.toString() + "/");
+        // Only blogs/ is public, the staging area under the same root must not be reachable
+        reg.addResourceHandler("/files-legacy/blogs/**")
+                .addResourceLocations("file:" + base.resolve("blogs") + "/");
     }
 }
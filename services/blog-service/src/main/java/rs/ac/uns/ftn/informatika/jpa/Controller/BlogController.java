@@ -6,10 +6,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import rs.ac.uns.ftn.informatika.jpa.DTO.AuthorStatsResponse;
 import rs.ac.uns.ftn.informatika.jpa.DTO.BlogCreateRequest;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogFeedPage;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogImageStatusResponse;
 import rs.ac.uns.ftn.informatika.jpa.DTO.BlogResponse;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogSearchPage;
 import rs.ac.uns.ftn.informatika.jpa.DTO.BlogUpdateRequest;
 import rs.ac.uns.ftn.informatika.jpa.Service.BlogService;
+import rs.ac.uns.ftn.informatika.jpa.Util.FeedCursor;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +47,43 @@ public class BlogController {
         return service.getAll();
     }
 
+    @GetMapping("/feed")
+    public BlogFeedPage getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return service.getFeed(cursor, size);
+    }
+
+    // Ranked full-text search; q accepts web-search syntax ("exact phrase", -excluded, or)
+    @GetMapping("/search")
+    public BlogSearchPage search(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return service.search(q, cursor, size);
+    }
+
+    // Newline-delimited JSON export, fetched chunk by chunk so memory stays flat for any table size
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public StreamingResponseBody export(@RequestParam(required = false) String cursor) {
+        // Checked up front: once streaming has started the status can no longer become a 400
+        FeedCursor.decode(cursor);
+        return out -> {
+            String next = cursor;
+            do {
+                BlogFeedPage chunk = service.getExportChunk(next);
+                for (BlogResponse item : chunk.items()) {
+                    out.write(objectMapper.writeValueAsBytes(item));
+                    out.write('\n');
+                }
+                out.flush();
+                next = chunk.nextCursor();
+            } while (next != null);
+        };
+    }
+
     @PostMapping("/following")
     public List<BlogResponse> getFollowingBlogs(@RequestBody(required = false) List<Long> followingUserIds) {
         //System.out.println("Received followingUserIds: " + followingUserIds);
@@ -51,6 +94,30 @@ public class BlogController {
         return service.getFollowingBlogs(followingUserIds);
     }
 
+    @PostMapping("/following/feed")
+    public BlogFeedPage getFollowingFeed(
+            @RequestBody(required = false) List<Long> followingUserIds,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return service.getFollowingFeed(followingUserIds, cursor, size);
+    }
+
+    @GetMapping("/timeline")
+    public BlogFeedPage getHomeTimeline(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return service.getHomeTimeline(userId, cursor, size);
+    }
+
+    // Post count and latest post time for a batch of profile cards, e.g. ?ids=1,2,3
+    @GetMapping("/authors/stats")
+    public List<AuthorStatsResponse> getAuthorStats(@RequestParam List<Long> ids) {
+        return service.getAuthorStats(ids);
+    }
+
     @GetMapping("/my")
     public List<BlogResponse> getMyBlogs(@RequestHeader("X-User-Id") Long userId) {
         //System.out.println("Received userId for my blogs: " + userId);
@@ -62,6 +129,12 @@ public class BlogController {
         return service.getById(id);
     }
 
+    // Images are ingested after the blog is saved; clients poll this until nothing is PENDING
+    @GetMapping("/{id}/images/status")
+    public List<BlogImageStatusResponse> getImageStatus(@PathVariable Long id) {
+        return service.getImageStatus(id);
+    }
+
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public BlogResponse update(
             @PathVariable Long id,
@@ -0,0 +1,144 @@
+package rs.ac.uns.ftn.informatika.jpa.Controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import rs.ac.uns.ftn.informatika.jpa.Service.BlogFileService;
+import rs.ac.uns.ftn.informatika.jpa.Service.BlogFileService.ServedFile;
+import rs.ac.uns.ftn.informatika.jpa.Util.ByteRange;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * Serves uploaded blog images. Bodies go through Tomcat's sendfile (zero-copy) when the
+ * connector supports it and the body is large enough, otherwise through a buffered copy into
+ * the response stream; ranges, ETags and 304s are handled here instead of the generic
+ * resource handler.
+ */
+@RestController
+public class FileController {
+
+    // Tomcat request attributes that hand the body over to the connector's sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDATE = CacheControl.maxAge(Duration.ofHours(1)).cachePublic().getHeaderValue();
+
+    private final BlogFileService files;
+
+    // Below this a plain write is cheaper than the sendfile handoff (same default as Tomcat's DefaultServlet)
+    @Value("${app.files.sendfile-threshold:49152}")
+    private long sendfileThreshold;
+
+    public FileController(BlogFileService files) {
+        this.files = files;
+    }
+
+    @GetMapping("/files/blobs/{name:.+}")
+    public void serveBlob(@PathVariable String name,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(files.findBlob(name).orElse(null), request, response);
+    }
+
+    // Uploads from before the blob store
+    @GetMapping("/files/blogs/{blogId}/{fileName:.+}")
+    public void serve(@PathVariable Long blogId, @PathVariable String fileName,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(files.find(blogId, fileName).orElse(null), request, response);
+    }
+
+    private void serve(ServedFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, file.immutable() ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // Sets ETag/Last-Modified and answers If-None-Match / If-Modified-Since with 304
+        if (new ServletWebRequest(request, response).checkNotModified(file.etag(), file.lastModified())) {
+            return;
+        }
+        response.setContentType(file.contentType().toString());
+
+        ByteRange range = rangeFor(request, file);
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        if (range == null) {
+            send(request, response, file, 0, file.size());
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + file.size());
+        send(request, response, file, range.start(), range.length());
+    }
+
+    private ByteRange rangeFor(HttpServletRequest request, ServedFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            // A stale If-Range means "send me the whole thing"; only strong validators may match
+            if (!ifRangeMatches(request, ifRange, file)) return null;
+        }
+        return ByteRange.parse(request.getHeader(HttpHeaders.RANGE), file.size());
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String ifRange, ServedFile file) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return !file.etag().startsWith("W/") && ifRange.equals(file.etag());
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == file.lastModified() / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void send(HttpServletRequest request, HttpServletResponse response, ServedFile file,
+                      long start, long length) throws IOException {
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) return;
+
+        if (length >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        // The target is the servlet stream, not a socket channel, so transferTo is a plain
+        // copy through a user-space buffer here
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    // Content-Length is already out; failing makes the container abort the
+                    // connection instead of ending a short body as if it were complete
+                    throw new IOException("File " + file.path() + " ended " + remaining + " bytes early");
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package rs.ac.uns.ftn.informatika.jpa.DTO;
+
+import java.time.OffsetDateTime;
+
+public record AuthorStatsResponse(
+        Long authorId,
+        int postCount,
+        OffsetDateTime lastPostAt
+) {}
@@ -0,0 +1,9 @@
+package rs.ac.uns.ftn.informatika.jpa.DTO;
+
+// srcset is null until derivatives exist (ingestion still running, or not an image)
+public record BlogImageResponse(
+        String url,
+        Integer width,
+        Integer height,
+        String srcset
+) {}
@@ -0,0 +1,11 @@
+package rs.ac.uns.ftn.informatika.jpa.DTO;
+
+import rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus;
+
+public record BlogImageStatusResponse(
+        Long id,
+        String url,
+        ImageStatus status,
+        Long sizeBytes,
+        String checksum
+) {}
@@ -9,5 +9,6 @@ public record BlogResponse (
         String descriptionHtml,
         OffsetDateTime createdAt,
         Long authorId,
-        List<String> imageUrls
+        List<String> imageUrls,
+        List<BlogImageResponse> images
 ){}
@@ -0,0 +1,8 @@
+package rs.ac.uns.ftn.informatika.jpa.DTO;
+
+import java.util.List;
+
+public record BlogSearchPage(
+        List<BlogSearchResult> items,
+        String nextCursor
+) {}
@@ -0,0 +1,12 @@
+package rs.ac.uns.ftn.informatika.jpa.DTO;
+
+import java.time.OffsetDateTime;
+
+// titleHtml and snippetHtml are escaped text with the matched words in <mark>
+public record BlogSearchResult(
+        Long id,
+        String titleHtml,
+        String snippetHtml,
+        OffsetDateTime createdAt,
+        Long authorId
+) {}
@@ -0,0 +1,48 @@
+package rs.ac.uns.ftn.informatika.jpa.Grpc;
+
+import io.grpc.ManagedChannel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class FollowerGrpcClient {
+    private final FollowerServiceGrpc.FollowerServiceBlockingStub stub;
+    private final long deadlineMs;
+
+    public FollowerGrpcClient(ManagedChannel followerChannel,
+                              @Value("${app.follower.grpc.deadline-ms:5000}") long deadlineMs) {
+        this.stub = FollowerServiceGrpc.newBlockingStub(followerChannel);
+        this.deadlineMs = deadlineMs;
+    }
+
+    // Follower ids of a user, at most limit of them (0 = all)
+    public List<Long> getFollowerIds(Long userId, int limit) {
+        var request = GetFollowerIdsRequest.newBuilder()
+                .setUserId(userId)
+                .setLimit(limit)
+                .build();
+        List<Long> ids = new ArrayList<>();
+        Iterator<UserIdsChunk> chunks = stub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS).getFollowerIds(request);
+        while (chunks.hasNext()) {
+            ids.addAll(chunks.next().getUserIdsList());
+        }
+        return ids;
+    }
+
+    // Subset of candidateIds that followerId follows
+    public List<Long> getFollowedAmong(Long followerId, List<Long> candidateIds) {
+        if (candidateIds.isEmpty()) return List.of();
+        var request = IsFollowingBatchRequest.newBuilder()
+                .setFollowerId(followerId)
+                .addAllFollowedIds(candidateIds)
+                .build();
+        return stub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                .isFollowingBatch(request)
+                .getFollowedIdsList();
+    }
+}
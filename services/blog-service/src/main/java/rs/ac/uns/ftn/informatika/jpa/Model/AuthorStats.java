@@ -0,0 +1,54 @@
+package rs.ac.uns.ftn.informatika.jpa.Model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+// Denormalized post counters for profile cards, written only through AuthorStatsRepository's upserts
+@Entity @Table(name="author_stats")
+public class AuthorStats {
+    @Id
+    @Column(name="author_id")
+    private Long authorId;
+
+    @Column(name="post_count", nullable=false)
+    private Integer postCount;
+
+    // Null once the author's last post is deleted
+    @Column(name="last_post_at")
+    private OffsetDateTime lastPostAt;
+
+    @Column(name="updated_at", nullable=false)
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public Integer getPostCount() {
+        return postCount;
+    }
+
+    public OffsetDateTime getLastPostAt() {
+        return lastPostAt;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public void setPostCount(Integer postCount) {
+        this.postCount = postCount;
+    }
+
+    public void setLastPostAt(OffsetDateTime lastPostAt) {
+        this.lastPostAt = lastPostAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
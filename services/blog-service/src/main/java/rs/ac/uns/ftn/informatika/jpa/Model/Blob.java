@@ -0,0 +1,79 @@
+package rs.ac.uns.ftn.informatika.jpa.Model;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+// Content-addressed upload: one row and one file per distinct SHA-256, shared by every BlogImage with those bytes
+@Entity
+@Table(name = "blobs", indexes = @Index(name = "idx_blobs_unreferenced", columnList = "released_at"))
+public class Blob {
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "content_type", length = 127)
+    private String contentType;
+
+    // Number of blog_images rows whose blob_sha256 points here
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    // Last time a reference was dropped, the collector only reclaims after a grace period
+    @Column(name = "released_at")
+    private OffsetDateTime releasedAt;
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public OffsetDateTime getReleasedAt() {
+        return releasedAt;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void setReleasedAt(OffsetDateTime releasedAt) {
+        this.releasedAt = releasedAt;
+    }
+}
@@ -5,7 +5,10 @@ import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
-@Entity @Table(name="blogs")
+@Entity @Table(name="blogs", indexes = {
+        @Index(name = "idx_blogs_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_blogs_author_created", columnList = "author_id, created_at DESC, id DESC")
+})
 public class Blog {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -19,6 +22,10 @@ public class Blog {
     @Column(name="description_html", nullable=false, columnDefinition="text")
     private String descriptionHtml;
 
+    // MarkdownService.POLICY_VERSION the HTML was rendered with
+    @Column(name="html_policy_version")
+    private Integer htmlPolicyVersion;
+
     @Column(name="created_at", nullable=false)
     private OffsetDateTime createdAt = OffsetDateTime.now();
 
@@ -44,6 +51,10 @@ public class Blog {
         return descriptionHtml;
     }
 
+    public Integer getHtmlPolicyVersion() {
+        return htmlPolicyVersion;
+    }
+
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
@@ -72,6 +83,10 @@ public class Blog {
         this.descriptionHtml = descriptionHtml;
     }
 
+    public void setHtmlPolicyVersion(Integer htmlPolicyVersion) {
+        this.htmlPolicyVersion = htmlPolicyVersion;
+    }
+
     public void setImages(List<BlogImage> images) {
         this.images = images;
     }
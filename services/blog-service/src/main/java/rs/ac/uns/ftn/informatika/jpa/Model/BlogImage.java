@@ -2,6 +2,9 @@ package rs.ac.uns.ftn.informatika.jpa.Model;
 
 import jakarta.persistence.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Entity @Table(name="blog_images")
 public class BlogImage {
     @Id
@@ -21,6 +24,26 @@ public class BlogImage {
     private String contentType;
     private Long sizeBytes;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImageStatus status = ImageStatus.PENDING;
+
+    // SHA-256 hex of the uploaded bytes, computed while spooling
+    @Column(length = 64)
+    private String checksum;
+
+    // Set once this image holds a reference on blobs(sha256); null for PENDING/FAILED and pre-blob uploads
+    @Column(name = "blob_sha256", length = 64)
+    private String blobSha256;
+
+    // Pixel size of the original, null for non-images and uploads from before derivatives
+    private Integer width;
+    private Integer height;
+
+    @OneToMany(mappedBy = "image", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("width")
+    private List<BlogImageVariant> variants = new ArrayList<>();
+
     public Long getId() {
         return id;
     }
@@ -45,6 +68,30 @@ public class BlogImage {
         return sizeBytes;
     }
 
+    public ImageStatus getStatus() {
+        return status;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public String getBlobSha256() {
+        return blobSha256;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public List<BlogImageVariant> getVariants() {
+        return variants;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -68,4 +115,24 @@ public class BlogImage {
     public void setSizeBytes(Long sizeBytes) {
         this.sizeBytes = sizeBytes;
     }
+
+    public void setStatus(ImageStatus status) {
+        this.status = status;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public void setBlobSha256(String blobSha256) {
+        this.blobSha256 = blobSha256;
+    }
 }
\ No newline at end of file
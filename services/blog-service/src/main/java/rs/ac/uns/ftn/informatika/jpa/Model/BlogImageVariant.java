@@ -0,0 +1,99 @@
+package rs.ac.uns.ftn.informatika.jpa.Model;
+
+import jakarta.persistence.*;
+
+// A resized copy of a BlogImage, stored next to the original under blogs/{blogId}
+@Entity
+@Table(name = "blog_image_variants",
+        uniqueConstraints = @UniqueConstraint(name = "uq_blog_image_variants_image_width",
+                columnNames = {"image_id", "width", "format"}))
+public class BlogImageVariant {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "image_id")
+    private BlogImage image;
+
+    @Column(nullable = false)
+    private Integer width;
+
+    @Column(nullable = false)
+    private Integer height;
+
+    @Column(nullable = false, length = 16)
+    private String format;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String url;
+
+    private Long sizeBytes;
+
+    public Long getId() {
+        return id;
+    }
+
+    public BlogImage getImage() {
+        return image;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setImage(BlogImage image) {
+        this.image = image;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+}
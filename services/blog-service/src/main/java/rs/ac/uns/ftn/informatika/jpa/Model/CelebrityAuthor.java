@@ -0,0 +1,49 @@
+package rs.ac.uns.ftn.informatika.jpa.Model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+// Author with too many followers for fan-out-on-write; their posts are merged into timelines at read time
+@Entity @Table(name="celebrity_authors")
+public class CelebrityAuthor {
+    @Id
+    @Column(name="author_id")
+    private Long authorId;
+
+    @Column(name="follower_count", nullable=false)
+    private Integer followerCount;
+
+    @Column(name="updated_at", nullable=false)
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    public CelebrityAuthor() {}
+
+    public CelebrityAuthor(Long authorId, Integer followerCount) {
+        this.authorId = authorId;
+        this.followerCount = followerCount;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public Integer getFollowerCount() {
+        return followerCount;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public void setFollowerCount(Integer followerCount) {
+        this.followerCount = followerCount;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
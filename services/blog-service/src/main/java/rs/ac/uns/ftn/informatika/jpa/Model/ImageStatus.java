@@ -0,0 +1,7 @@
+package rs.ac.uns.ftn.informatika.jpa.Model;
+
+public enum ImageStatus {
+    PENDING,
+    READY,
+    FAILED
+}
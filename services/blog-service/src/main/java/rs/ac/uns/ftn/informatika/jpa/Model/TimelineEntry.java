@@ -0,0 +1,57 @@
+package rs.ac.uns.ftn.informatika.jpa.Model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+// One precomputed slot in a user's home timeline, written by fan-out when a followed author publishes
+@Entity @Table(name="home_timeline", indexes = {
+        @Index(name = "idx_home_timeline_user_created", columnList = "user_id, created_at DESC, blog_id DESC")
+})
+@IdClass(TimelineEntryId.class)
+public class TimelineEntry {
+    @Id
+    @Column(name="user_id")
+    private Long userId;
+
+    @Id
+    @Column(name="blog_id")
+    private Long blogId;
+
+    @Column(name="author_id", nullable=false)
+    private Long authorId;
+
+    @Column(name="created_at", nullable=false)
+    private OffsetDateTime createdAt;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setBlogId(Long blogId) {
+        this.blogId = blogId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
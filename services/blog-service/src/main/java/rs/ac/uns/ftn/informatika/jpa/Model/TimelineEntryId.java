@@ -0,0 +1,28 @@
+package rs.ac.uns.ftn.informatika.jpa.Model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class TimelineEntryId implements Serializable {
+    private Long userId;
+    private Long blogId;
+
+    public TimelineEntryId() {}
+
+    public TimelineEntryId(Long userId, Long blogId) {
+        this.userId = userId;
+        this.blogId = blogId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TimelineEntryId other)) return false;
+        return Objects.equals(userId, other.userId) && Objects.equals(blogId, other.blogId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, blogId);
+    }
+}
@@ -0,0 +1,8 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+public interface AuthorPostRow {
+    Long getAuthorId();
+    Long getBlogId();
+    // Epoch microseconds, the precision Postgres stores created_at with
+    Long getCreatedAtMicros();
+}
@@ -0,0 +1,29 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import rs.ac.uns.ftn.informatika.jpa.Model.AuthorStats;
+
+import java.time.OffsetDateTime;
+
+public interface AuthorStatsRepository extends JpaRepository<AuthorStats, Long> {
+
+    // Creates the row on an author's first post; concurrent posts by one author queue on its row lock
+    @Modifying
+    @Query(value = "INSERT INTO author_stats (author_id, post_count, last_post_at, updated_at) " +
+            "VALUES (:authorId, 1, :createdAt, now()) " +
+            "ON CONFLICT (author_id) DO UPDATE SET post_count = author_stats.post_count + 1, " +
+            "last_post_at = GREATEST(author_stats.last_post_at, EXCLUDED.last_post_at), updated_at = now()",
+            nativeQuery = true)
+    int recordPost(@Param("authorId") Long authorId, @Param("createdAt") OffsetDateTime createdAt);
+
+    // Runs after the blog row is gone, so the newest remaining post is one idx_blogs_author_created probe
+    @Modifying
+    @Query(value = "UPDATE author_stats SET post_count = GREATEST(post_count - 1, 0), " +
+            "last_post_at = (SELECT max(b.created_at) FROM blogs b WHERE b.author_id = :authorId), " +
+            "updated_at = now() WHERE author_id = :authorId",
+            nativeQuery = true)
+    int recordDelete(@Param("authorId") Long authorId);
+}
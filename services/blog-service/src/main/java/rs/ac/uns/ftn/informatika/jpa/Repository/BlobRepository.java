@@ -0,0 +1,51 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import rs.ac.uns.ftn.informatika.jpa.Model.Blob;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface BlobRepository extends JpaRepository<Blob, String> {
+
+    // Takes one reference, creating the row on first sight. The row lock it leaves behind
+    // is what orders this against BlobGarbageCollector deleting the same blob.
+    @Modifying
+    @Query(value = "INSERT INTO blobs (sha256, size_bytes, content_type, ref_count, created_at) " +
+            "VALUES (:sha256, :size, :contentType, 1, now()) " +
+            "ON CONFLICT (sha256) DO UPDATE SET ref_count = blobs.ref_count + 1, released_at = NULL",
+            nativeQuery = true)
+    int acquire(@Param("sha256") String sha256, @Param("size") long size, @Param("contentType") String contentType);
+
+    // A file moved into blobs/ by a transaction that then rolled back: hand it to the collector
+    // as an already released blob. An existing row means somebody else references the file.
+    @Modifying
+    @Query(value = "INSERT INTO blobs (sha256, size_bytes, content_type, ref_count, created_at, released_at) " +
+            "VALUES (:sha256, :size, :contentType, 0, now(), now()) ON CONFLICT (sha256) DO NOTHING",
+            nativeQuery = true)
+    int registerUnreferenced(@Param("sha256") String sha256, @Param("size") long size,
+                             @Param("contentType") String contentType);
+
+    @Modifying
+    @Query(value = "UPDATE blobs SET ref_count = ref_count - :count, released_at = now() WHERE sha256 = :sha256",
+            nativeQuery = true)
+    int release(@Param("sha256") String sha256, @Param("count") int count);
+
+    // SKIP LOCKED: a blob somebody is re-acquiring right now is simply left for the next run
+    @Query(value = "SELECT * FROM blobs WHERE ref_count <= 0 AND released_at < :releasedBefore " +
+            "ORDER BY released_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Blob> lockReclaimable(@Param("releasedBefore") OffsetDateTime releasedBefore, @Param("limit") int limit);
+
+    @Query("select b.contentType from Blob b where b.sha256 = :sha256")
+    String findContentType(@Param("sha256") String sha256);
+
+    @Query("select coalesce(sum(b.sizeBytes), 0) from Blob b")
+    long sumStoredBytes();
+
+    // What storing every reference separately would have cost on top
+    @Query("select coalesce(sum(b.sizeBytes * (b.refCount - 1)), 0) from Blob b where b.refCount > 1")
+    long sumDeduplicatedBytes();
+}
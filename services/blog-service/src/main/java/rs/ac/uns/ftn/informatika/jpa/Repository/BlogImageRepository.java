@@ -0,0 +1,68 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import rs.ac.uns.ftn.informatika.jpa.Model.BlogImage;
+import rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BlogImageRepository extends JpaRepository<BlogImage, Long> {
+
+    // Image URLs and their derivatives for a whole page of blogs in one round trip, instead of
+    // lazy loads per blog. Failed ingestions never got a file behind their URL, so they are left out.
+    @Query("select i.blog.id as blogId, i.id as imageId, i.url as url, i.width as width, i.height as height, " +
+            "v.url as variantUrl, v.width as variantWidth from BlogImage i left join i.variants v " +
+            "where i.blog.id in :blogIds and i.status <> rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus.FAILED " +
+            "order by i.id, v.width")
+    List<BlogImageUrlView> findUrlsByBlogIds(@Param("blogIds") Collection<Long> blogIds);
+
+    @Query("select i from BlogImage i where i.blog.id = :blogId order by i.id")
+    List<BlogImage> findByBlogId(@Param("blogId") Long blogId);
+
+    @Query("select i.checksum from BlogImage i " +
+            "where i.blog.id = :blogId and i.fileName = :fileName " +
+            "and i.status = rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus.READY")
+    Optional<String> findReadyChecksum(@Param("blogId") Long blogId, @Param("fileName") String fileName);
+
+    @Query("select i.id as id, i.blog.id as blogId, i.fileName as fileName, i.contentType as contentType, " +
+            "i.sizeBytes as sizeBytes, i.checksum as checksum, i.blobSha256 as blobSha256 " +
+            "from BlogImage i where i.status = :status order by i.id")
+    List<ImageFileView> findByStatus(@Param("status") ImageStatus status);
+
+    // Keyset batches for DerivativeRegenerationRunner; onlyMissing skips images that already have derivatives
+    @Query("select i.id as id, i.blog.id as blogId, i.fileName as fileName, i.contentType as contentType, " +
+            "i.sizeBytes as sizeBytes, i.checksum as checksum, i.blobSha256 as blobSha256 from BlogImage i " +
+            "where i.status = rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus.READY and i.id > :afterId " +
+            "and (:onlyMissing = false or i.width is null) order by i.id")
+    List<ImageFileView> findReadyAfter(@Param("afterId") Long afterId, @Param("onlyMissing") boolean onlyMissing,
+                                       Limit limit);
+
+    // All images sharing a blob, so a regeneration run renders its derivatives once for all of them
+    @Query("select i.id from BlogImage i where i.blobSha256 = :blobSha256 " +
+            "and i.status = rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus.READY order by i.id")
+    List<Long> findReadyIdsByBlob(@Param("blobSha256") String blobSha256);
+
+    // Guarded on PENDING so a late worker can not resurrect an image that was replaced or failed meanwhile
+    @Modifying
+    @Query("update BlogImage i set i.status = :status, i.blobSha256 = :blobSha256 " +
+            "where i.id = :id and i.status = rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus.PENDING")
+    int completeIngestion(@Param("id") Long id, @Param("status") ImageStatus status,
+                          @Param("blobSha256") String blobSha256);
+
+    // Locks the blog's image rows before they are removed, so an ingestion finishing concurrently
+    // either lands first (and its reference is released here) or finds the row gone
+    @Query(value = "SELECT blob_sha256 FROM blog_images WHERE blog_id = :blogId FOR UPDATE", nativeQuery = true)
+    List<String> lockBlobReferences(@Param("blogId") Long blogId);
+
+    @Query("select i.fileName from BlogImage i where i.blog.id = :blogId")
+    List<String> findFileNamesByBlogId(@Param("blogId") Long blogId);
+
+    @Query("select v.fileName from BlogImageVariant v where v.image.blog.id = :blogId")
+    List<String> findVariantFileNamesByBlogId(@Param("blogId") Long blogId);
+}
@@ -0,0 +1,12 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+// One row per (image, variant); variant columns are null for images without derivatives
+public interface BlogImageUrlView {
+    Long getBlogId();
+    Long getImageId();
+    String getUrl();
+    Integer getWidth();
+    Integer getHeight();
+    String getVariantUrl();
+    Integer getVariantWidth();
+}
@@ -0,0 +1,6 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+public interface BlogMarkdownView {
+    Long getId();
+    String getDescriptionMd();
+}
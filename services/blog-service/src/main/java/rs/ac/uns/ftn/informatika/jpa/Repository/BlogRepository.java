@@ -1,11 +1,75 @@
 package rs.ac.uns.ftn.informatika.jpa.Repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import rs.ac.uns.ftn.informatika.jpa.Model.Blog;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface BlogRepository extends JpaRepository<Blog, Long> {
     List<Blog> findByAuthorId(Long authorId);
     List<Blog> findByAuthorIdIn(List<Long> authorIds);
+
+    // Keyset page: row-value comparison lets Postgres seek straight into idx_blogs_created_at_id
+    @Query("select b from Blog b " +
+            "where (b.createdAt, b.id) < (:createdAt, :id) " +
+            "order by b.createdAt desc, b.id desc")
+    List<Blog> findFeedPage(@Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Newest perAuthor posts of every author before the cursor, each author read through idx_blogs_author_created
+    @Query(value = "SELECT p.author_id AS authorId, p.id AS blogId, " +
+            "CAST(EXTRACT(EPOCH FROM p.created_at) * 1000000 AS BIGINT) AS createdAtMicros " +
+            "FROM unnest(ARRAY[:authorIds]) AS a(author_id) " +
+            "CROSS JOIN LATERAL (SELECT b.id, b.author_id, b.created_at FROM blogs b " +
+            "                    WHERE b.author_id = a.author_id AND (b.created_at, b.id) < (:createdAt, :id) " +
+            "                    ORDER BY b.created_at DESC, b.id DESC " +
+            "                    LIMIT :perAuthor) p", nativeQuery = true)
+    List<AuthorPostRow> findNewestPerAuthor(@Param("authorIds") List<Long> authorIds,
+                                            @Param("createdAt") OffsetDateTime createdAt,
+                                            @Param("id") Long id,
+                                            @Param("perAuthor") int perAuthor);
+
+    @Query("select new rs.ac.uns.ftn.informatika.jpa.Repository.TimelineRef(b.id, b.createdAt) from Blog b " +
+            "where b.authorId = :authorId and (b.createdAt, b.id) < (:createdAt, :id) " +
+            "order by b.createdAt desc, b.id desc")
+    List<TimelineRef> findRefsByAuthorId(@Param("authorId") Long authorId,
+                                         @Param("createdAt") OffsetDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Limit limit);
+
+    // Matches come off idx_blogs_search (V10) and are ranked; ts_headline, the expensive part,
+    // only runs on the rows of the requested page. Marker characters typed by authors are dropped first.
+    @Query(value = "SELECT p.id AS id, p.rank AS rank, p.author_id AS authorId, " +
+            "CAST(EXTRACT(EPOCH FROM p.created_at) * 1000000 AS BIGINT) AS createdAtMicros, " +
+            "ts_headline('simple', translate(p.title, chr(2) || chr(3), ''), q, :options) AS titleHighlight, " +
+            "ts_headline('simple', translate(p.description_md, chr(2) || chr(3), ''), q, :options) AS snippet " +
+            "FROM (SELECT b.id, b.title, b.description_md, b.author_id, b.created_at, " +
+            "             ts_rank_cd(b.search_tsv, q, 1) AS rank " +
+            "      FROM blogs b CROSS JOIN websearch_to_tsquery('simple', :query) q " +
+            "      WHERE b.search_tsv @@ q AND (ts_rank_cd(b.search_tsv, q, 1), b.id) < (:rank, :id) " +
+            "      ORDER BY rank DESC, b.id DESC " +
+            "      LIMIT :limit) p " +
+            "CROSS JOIN websearch_to_tsquery('simple', :query) q " +
+            "ORDER BY p.rank DESC, p.id DESC", nativeQuery = true)
+    List<BlogSearchRow> search(@Param("query") String query,
+                               @Param("rank") float rank,
+                               @Param("id") long id,
+                               @Param("limit") int limit,
+                               @Param("options") String options);
+
+    // Rows rendered with an older sanitizer policy, walked in id order
+    @Query("select b.id as id, b.descriptionMd as descriptionMd from Blog b " +
+            "where b.id > :afterId and (b.htmlPolicyVersion is null or b.htmlPolicyVersion < :version) " +
+            "order by b.id")
+    List<BlogMarkdownView> findStaleHtml(@Param("version") int version, @Param("afterId") Long afterId, Limit limit);
+
+    // Guarded by the version so a concurrent user edit (already on the new policy) is never overwritten
+    @Modifying
+    @Query("update Blog b set b.descriptionHtml = :html, b.htmlPolicyVersion = :version " +
+            "where b.id = :id and (b.htmlPolicyVersion is null or b.htmlPolicyVersion < :version)")
+    int updateRenderedHtml(@Param("id") Long id, @Param("html") String html, @Param("version") int version);
 }
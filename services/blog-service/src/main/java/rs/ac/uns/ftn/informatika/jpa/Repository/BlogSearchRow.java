@@ -0,0 +1,12 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+public interface BlogSearchRow {
+    Long getId();
+    Float getRank();
+    Long getAuthorId();
+    // Epoch microseconds, as in AuthorPostRow
+    Long getCreatedAtMicros();
+    // ts_headline output, matches wrapped in SearchHighlight.START/STOP
+    String getTitleHighlight();
+    String getSnippet();
+}
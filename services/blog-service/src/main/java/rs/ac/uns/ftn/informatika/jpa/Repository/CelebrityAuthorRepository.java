@@ -0,0 +1,12 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import rs.ac.uns.ftn.informatika.jpa.Model.CelebrityAuthor;
+
+import java.util.List;
+
+public interface CelebrityAuthorRepository extends JpaRepository<CelebrityAuthor, Long> {
+    @Query("select c.authorId from CelebrityAuthor c")
+    List<Long> findAllAuthorIds();
+}
@@ -0,0 +1,11 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+public interface ImageFileView {
+    Long getId();
+    Long getBlogId();
+    String getFileName();
+    String getContentType();
+    Long getSizeBytes();
+    String getChecksum();
+    String getBlobSha256();
+}
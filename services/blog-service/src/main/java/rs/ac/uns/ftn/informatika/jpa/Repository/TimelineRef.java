@@ -0,0 +1,13 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+
+public record TimelineRef(Long blogId, OffsetDateTime createdAt) {
+
+    // Feed order: created_at desc, then id desc
+    public static final Comparator<TimelineRef> NEWEST_FIRST = Comparator
+            .comparing(TimelineRef::createdAt)
+            .thenComparing(TimelineRef::blogId)
+            .reversed();
+}
@@ -0,0 +1,58 @@
+package rs.ac.uns.ftn.informatika.jpa.Repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import rs.ac.uns.ftn.informatika.jpa.Model.TimelineEntry;
+import rs.ac.uns.ftn.informatika.jpa.Model.TimelineEntryId;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface TimelineRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    @Query("select new rs.ac.uns.ftn.informatika.jpa.Repository.TimelineRef(t.blogId, t.createdAt) " +
+            "from TimelineEntry t " +
+            "where t.userId = :userId and (t.createdAt, t.blogId) < (:createdAt, :blogId) " +
+            "order by t.createdAt desc, t.blogId desc")
+    List<TimelineRef> findPage(@Param("userId") Long userId,
+                               @Param("createdAt") OffsetDateTime createdAt,
+                               @Param("blogId") Long blogId,
+                               Limit limit);
+
+    // One statement per batch of followers instead of one insert per timeline
+    @Modifying
+    @Query(value = "INSERT INTO home_timeline (user_id, blog_id, author_id, created_at) " +
+            "SELECT u.user_id, :blogId, :authorId, :createdAt FROM unnest(ARRAY[:userIds]) AS u(user_id) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int pushToTimelines(@Param("userIds") List<Long> userIds,
+                        @Param("blogId") Long blogId,
+                        @Param("authorId") Long authorId,
+                        @Param("createdAt") OffsetDateTime createdAt);
+
+    // An author who stops being a celebrity: copies their newest posts into the given timelines,
+    // which until now only saw those posts merged in at read time
+    @Modifying
+    @Query(value = "INSERT INTO home_timeline (user_id, blog_id, author_id, created_at) " +
+            "SELECT u.user_id, b.id, b.author_id, b.created_at FROM unnest(ARRAY[:userIds]) AS u(user_id) " +
+            "CROSS JOIN (SELECT id, author_id, created_at FROM blogs WHERE author_id = :authorId " +
+            "            ORDER BY created_at DESC, id DESC LIMIT :maxEntries) b " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfillTimelines(@Param("userIds") List<Long> userIds,
+                          @Param("authorId") Long authorId,
+                          @Param("maxEntries") int maxEntries);
+
+    // Drops everything past the newest maxEntries rows; the lateral OFFSET walks idx_home_timeline_user_created per user
+    @Modifying
+    @Query(value = "DELETE FROM home_timeline h " +
+            "USING (SELECT u.user_id, c.created_at, c.blog_id FROM unnest(ARRAY[:userIds]) AS u(user_id) " +
+            "       CROSS JOIN LATERAL (SELECT t.created_at, t.blog_id FROM home_timeline t " +
+            "                           WHERE t.user_id = u.user_id " +
+            "                           ORDER BY t.created_at DESC, t.blog_id DESC " +
+            "                           OFFSET :maxEntries LIMIT 1) c) cutoff " +
+            "WHERE h.user_id = cutoff.user_id " +
+            "AND (h.created_at, h.blog_id) <= (cutoff.created_at, cutoff.blog_id)", nativeQuery = true)
+    int trimTimelines(@Param("userIds") List<Long> userIds, @Param("maxEntries") int maxEntries);
+}
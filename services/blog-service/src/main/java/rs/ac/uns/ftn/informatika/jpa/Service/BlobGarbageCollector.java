@@ -0,0 +1,159 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ac.uns.ftn.informatika.jpa.Model.Blob;
+import rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlobRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogImageRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.ImageFileView;
+import rs.ac.uns.ftn.informatika.jpa.Util.FileStorageService;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Reclaims disk space:
+ * - blobs whose reference count dropped to zero more than the grace period ago, deleted
+ *   (file first, then row) while holding the row lock that BlobRepository.acquire would need;
+ * - staging files no PENDING image points to (uploads abandoned mid-request);
+ * - files under blogs/{id}/ left behind by updates before the blob store existed.
+ */
+@Component
+public class BlobGarbageCollector {
+    private static final Logger log = LoggerFactory.getLogger(BlobGarbageCollector.class);
+    private static final int BATCH = 200;
+
+    private final BlobRepository blobRepo;
+    private final BlogImageRepository imageRepo;
+    private final FileStorageService storage;
+    private final TransactionTemplate tx;
+    private final Counter reclaimedBlobs;
+    private final Counter freedBytes;
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong savedBytes = new AtomicLong();
+
+    @Value("${app.storage.gc.grace:PT1H}")
+    private Duration grace;
+
+    public BlobGarbageCollector(BlobRepository blobRepo, BlogImageRepository imageRepo, FileStorageService storage,
+                                PlatformTransactionManager txManager, MeterRegistry meters) {
+        this.blobRepo = blobRepo;
+        this.imageRepo = imageRepo;
+        this.storage = storage;
+        this.tx = new TransactionTemplate(txManager);
+        this.reclaimedBlobs = Counter.builder("blog.blobs.gc.reclaimed").register(meters);
+        this.freedBytes = Counter.builder("blog.blobs.gc.freed.bytes").baseUnit("bytes").register(meters);
+        // Refreshed by every collector run rather than queried on every scrape
+        Gauge.builder("blog.blobs.stored.bytes", storedBytes, AtomicLong::get).baseUnit("bytes").register(meters);
+        Gauge.builder("blog.blobs.saved.bytes", savedBytes, AtomicLong::get)
+                .description("Bytes deduplication currently saves compared to one file per image")
+                .baseUnit("bytes")
+                .register(meters);
+    }
+
+    @Scheduled(initialDelayString = "${app.storage.gc.initial-delay:PT1M}", fixedDelayString = "${app.storage.gc.interval:PT10M}")
+    public void collect() {
+        Instant cutoff = Instant.now().minus(grace);
+        try {
+            reclaimBlobs(cutoff.atOffset(ZoneOffset.UTC));
+            sweepStaging(cutoff);
+            sweepPreBlobUploads(cutoff);
+        } catch (RuntimeException | IOException e) {
+            log.warn("Blob garbage collection stopped early: {}", e.toString());
+        }
+        storedBytes.set(blobRepo.sumStoredBytes());
+        savedBytes.set(blobRepo.sumDeduplicatedBytes());
+    }
+
+    private void reclaimBlobs(OffsetDateTime releasedBefore) {
+        while (true) {
+            Integer reclaimed = tx.execute(s -> {
+                List<Blob> batch = blobRepo.lockReclaimable(releasedBefore, BATCH);
+                long bytes = 0;
+                for (Blob blob : batch) {
+                    bytes += storage.deleteBlob(blob.getSha256());
+                }
+                blobRepo.deleteAllInBatch(batch);
+                freedBytes.increment(bytes);
+                return batch.size();
+            });
+            if (reclaimed == null || reclaimed == 0) return;
+            reclaimedBlobs.increment(reclaimed);
+            log.info("Reclaimed {} unreferenced blobs", reclaimed);
+            if (reclaimed < BATCH) return;
+        }
+    }
+
+    private void sweepStaging(Instant olderThan) throws IOException {
+        Path staging = storage.stagingDir();
+        if (!Files.isDirectory(staging)) return;
+        Set<String> pending = imageRepo.findByStatus(ImageStatus.PENDING).stream()
+                .map(ImageFileView::getFileName)
+                .collect(Collectors.toSet());
+        deleteUnreferenced(staging, pending, olderThan);
+    }
+
+    private void sweepPreBlobUploads(Instant olderThan) throws IOException {
+        Path blogs = storage.blogsDir();
+        if (!Files.isDirectory(blogs)) return;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(blogs, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                Long blogId;
+                try {
+                    blogId = Long.valueOf(dir.getFileName().toString());
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                Set<String> referenced = new HashSet<>(imageRepo.findFileNamesByBlogId(blogId));
+                referenced.addAll(imageRepo.findVariantFileNamesByBlogId(blogId));
+                if (deleteUnreferenced(dir, referenced, olderThan) && referenced.isEmpty()) {
+                    try (var left = Files.list(dir)) {
+                        if (left.findAny().isEmpty()) Files.deleteIfExists(dir);
+                    }
+                }
+            }
+        }
+    }
+
+    // Returns whether anything was deleted
+    private boolean deleteUnreferenced(Path dir, Set<String> referenced, Instant olderThan) throws IOException {
+        long freed = 0;
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, Files::isRegularFile)) {
+            for (Path file : files) {
+                if (referenced.contains(file.getFileName().toString())) continue;
+                if (Files.getLastModifiedTime(file).toInstant().isAfter(olderThan)) continue;
+                long size = Files.size(file);
+                if (Files.deleteIfExists(file)) {
+                    freed += size;
+                    deleted++;
+                }
+            }
+        }
+        if (deleted > 0) {
+            freedBytes.increment(freed);
+            log.info("Deleted {} unreferenced files ({} bytes) from {}", deleted, freed, dir);
+        }
+        return deleted > 0;
+    }
+}
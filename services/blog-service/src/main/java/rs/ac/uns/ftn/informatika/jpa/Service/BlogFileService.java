@@ -0,0 +1,125 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlobRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogImageRepository;
+import rs.ac.uns.ftn.informatika.jpa.Util.FileStorageService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves a public image path (content-addressed blob or pre-blob blogs/{id}/ upload)
+ * to the file on disk plus the metadata the HTTP layer needs.
+ * Stored files never change once written, so their metadata is cached instead of being
+ * looked up on every request.
+ */
+@Service
+public class BlogFileService {
+
+    // FileStorageService names files UUID_originalName, a name is never reused for other bytes
+    private static final Pattern UUID_NAME =
+            Pattern.compile("^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}_.+");
+
+    // {sha256} for an original, {sha256}_w{width}.jpg for one of its derivatives
+    private static final Pattern BLOB_NAME = Pattern.compile("^[0-9a-f]{64}(_w\\d+\\.jpg)?$");
+
+    private final BlogImageRepository imageRepo;
+    private final BlobRepository blobRepo;
+    private final FileStorageService storage;
+    private final Cache<String, Optional<String>> checksums = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            // Bounds how long a file served before its checksum landed keeps the weak ETag
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    // Blobs carry no extension, so their type comes from the row written at ingestion
+    private final Cache<String, String> blobTypes = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .build();
+
+    // Misses only briefly: the file is in place shortly before the transaction writing its row
+    // commits, and a blob of unknown type should not cost a query on every request either
+    private final Cache<String, Boolean> untypedBlobs = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .build();
+
+    public BlogFileService(BlogImageRepository imageRepo, BlobRepository blobRepo, FileStorageService storage) {
+        this.imageRepo = imageRepo;
+        this.blobRepo = blobRepo;
+        this.storage = storage;
+    }
+
+    // Content-addressed: the name is the ETag and the bytes behind it never change
+    public Optional<ServedFile> findBlob(String name) {
+        var matcher = BLOB_NAME.matcher(name);
+        if (!matcher.matches()) return Optional.empty();
+
+        BasicFileAttributes attrs = attributes(storage.blobPath(name));
+        if (attrs == null) return Optional.empty();
+
+        String type = matcher.group(1) != null ? MediaType.IMAGE_JPEG_VALUE : blobType(name);
+        // Until the row is visible the type is a guess, so the response must not be cached as immutable
+        MediaType contentType = type != null ? MediaType.parseMediaType(type) : MediaType.APPLICATION_OCTET_STREAM;
+        return Optional.of(new ServedFile(storage.blobPath(name), attrs.size(), attrs.lastModifiedTime().toMillis(),
+                "\"" + name + "\"", contentType, type != null));
+    }
+
+    private String blobType(String name) {
+        String type = blobTypes.getIfPresent(name);
+        if (type != null || untypedBlobs.getIfPresent(name) != null) return type;
+
+        type = blobRepo.findContentType(name);
+        if (type != null) {
+            blobTypes.put(name, type);
+        } else {
+            untypedBlobs.put(name, Boolean.TRUE);
+        }
+        return type;
+    }
+
+    public Optional<ServedFile> find(Long blogId, String fileName) {
+        Path path = storage.resolveBlogImage(blogId, fileName);
+        if (path == null) return Optional.empty();
+
+        BasicFileAttributes attrs = attributes(path);
+        if (attrs == null) return Optional.empty();
+
+        Optional<String> checksum = checksums.get(blogId + "/" + fileName,
+                k -> imageRepo.findReadyChecksum(blogId, fileName));
+
+        long size = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        // Strong ETag only when we know the content hash; files from before checksums get a weak one
+        String etag = checksum
+                .map(c -> "\"" + c + "\"")
+                .orElseGet(() -> "W/\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"");
+        // By extension like the resource handler did; the client-declared upload type is not trusted
+        MediaType contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        return Optional.of(new ServedFile(path, size, lastModified, etag, contentType,
+                UUID_NAME.matcher(fileName).matches()));
+    }
+
+    private static BasicFileAttributes attributes(Path path) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return attrs.isRegularFile() ? attrs : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public record ServedFile(Path path, long size, long lastModified, String etag,
+                             MediaType contentType, boolean immutable) {}
+}
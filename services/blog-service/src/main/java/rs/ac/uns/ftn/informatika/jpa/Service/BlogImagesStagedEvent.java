@@ -0,0 +1,10 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import rs.ac.uns.ftn.informatika.jpa.Util.FileStorageService.StagedFile;
+
+import java.util.List;
+
+public record BlogImagesStagedEvent(Long blogId, List<PendingImage> images) {
+
+    public record PendingImage(Long imageId, StagedFile file) {}
+}
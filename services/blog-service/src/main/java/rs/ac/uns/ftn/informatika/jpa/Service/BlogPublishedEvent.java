@@ -0,0 +1,5 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import java.time.OffsetDateTime;
+
+public record BlogPublishedEvent(Long blogId, Long authorId, OffsetDateTime createdAt) {}
@@ -1,7 +1,11 @@
 package rs.ac.uns.ftn.informatika.jpa.Service;
 
 import org.springframework.web.multipart.MultipartFile;
+import rs.ac.uns.ftn.informatika.jpa.DTO.AuthorStatsResponse;
 import rs.ac.uns.ftn.informatika.jpa.DTO.BlogCreateRequest;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogFeedPage;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogImageStatusResponse;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogSearchPage;
 import rs.ac.uns.ftn.informatika.jpa.DTO.BlogResponse;
 import rs.ac.uns.ftn.informatika.jpa.DTO.BlogUpdateRequest;
 
@@ -10,9 +14,16 @@ import java.util.List;
 public interface BlogService {
     BlogResponse create(Long authorId, BlogCreateRequest req, List<MultipartFile> images);
     List<BlogResponse> getAll();
+    BlogFeedPage getFeed(String cursor, Integer size);
+    BlogFeedPage getExportChunk(String cursor);
     List<BlogResponse> getFollowingBlogs(List<Long> followingUserIds);
+    BlogFeedPage getFollowingFeed(List<Long> followingUserIds, String cursor, Integer size);
+    BlogFeedPage getHomeTimeline(Long userId, String cursor, Integer size);
+    BlogSearchPage search(String query, String cursor, Integer size);
     List<BlogResponse> getMyBlogs(Long userId);
     BlogResponse getById(Long id);
     BlogResponse update(Long id, Long authorId, BlogUpdateRequest req, List<MultipartFile> images);
     void delete(Long id, Long authorId);
+    List<BlogImageStatusResponse> getImageStatus(Long blogId);
+    List<AuthorStatsResponse> getAuthorStats(List<Long> authorIds);
 }
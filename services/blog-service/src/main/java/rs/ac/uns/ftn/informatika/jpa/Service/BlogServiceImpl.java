@@ -1,88 +1,262 @@
 package rs.ac.uns.ftn.informatika.jpa.Service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import rs.ac.uns.ftn.informatika.jpa.DTO.AuthorStatsResponse;
 import rs.ac.uns.ftn.informatika.jpa.DTO.BlogCreateRequest;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogFeedPage;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogImageResponse;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogImageStatusResponse;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogSearchPage;
+import rs.ac.uns.ftn.informatika.jpa.DTO.BlogSearchResult;
 import rs.ac.uns.ftn.informatika.jpa.DTO.BlogResponse;
 import rs.ac.uns.ftn.informatika.jpa.DTO.BlogUpdateRequest;
+import rs.ac.uns.ftn.informatika.jpa.Model.AuthorStats;
 import rs.ac.uns.ftn.informatika.jpa.Model.Blog;
 import rs.ac.uns.ftn.informatika.jpa.Model.BlogImage;
+import rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus;
+import rs.ac.uns.ftn.informatika.jpa.Repository.AuthorStatsRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlobRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogImageRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogImageUrlView;
 import rs.ac.uns.ftn.informatika.jpa.Repository.BlogRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogSearchRow;
+import rs.ac.uns.ftn.informatika.jpa.Repository.TimelineRef;
+import rs.ac.uns.ftn.informatika.jpa.Util.FeedCursor;
 import rs.ac.uns.ftn.informatika.jpa.Util.FileStorageService;
+import rs.ac.uns.ftn.informatika.jpa.Util.FileStorageService.StagedFile;
 import rs.ac.uns.ftn.informatika.jpa.Util.MarkdownService;
+import rs.ac.uns.ftn.informatika.jpa.Util.SearchCursor;
+import rs.ac.uns.ftn.informatika.jpa.Util.SearchHighlight;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BlogServiceImpl implements BlogService {
 
+    // Keeps the IN list of the image lookup well below Postgres' bind parameter limit
+    private static final int IMAGE_LOOKUP_BATCH = 1000;
+
     private final BlogRepository repo;
+    private final BlogImageRepository imageRepo;
     private final MarkdownService md;
     private final FileStorageService storage;
+    private final TimelineService timeline;
+    private final FeedAssembler feedAssembler;
+    private final ApplicationEventPublisher events;
+    private final ImageIngestionService ingestion;
+    private final BlobRepository blobRepo;
+    private final AuthorStatsRepository statsRepo;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+
+    @Value("${app.feed.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.feed.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.feed.export-chunk-size:500}")
+    private int exportChunkSize;
+
+    @Value("${app.authors.stats.max-ids:200}")
+    private int maxStatsIds;
+
+    @Value("${app.search.max-query-length:200}")
+    private int maxQueryLength;
 
-    public BlogServiceImpl(BlogRepository repo, MarkdownService md, FileStorageService storage) {
-        this.repo = repo; this.md = md; this.storage = storage;
+    public BlogServiceImpl(BlogRepository repo, BlogImageRepository imageRepo, MarkdownService md, FileStorageService storage,
+                           TimelineService timeline, FeedAssembler feedAssembler, ApplicationEventPublisher events,
+                           ImageIngestionService ingestion, BlobRepository blobRepo, AuthorStatsRepository statsRepo,
+                           PlatformTransactionManager txManager) {
+        this.repo = repo; this.imageRepo = imageRepo; this.md = md; this.storage = storage;
+        this.timeline = timeline; this.feedAssembler = feedAssembler; this.events = events;
+        this.ingestion = ingestion; this.blobRepo = blobRepo; this.statsRepo = statsRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
-    @Override @Transactional
+    @Override
     public BlogResponse create(Long authorId, BlogCreateRequest req, List<MultipartFile> images) {
-        Blog blog = new Blog();
-        blog.setTitle(req.title());
-        blog.setDescriptionMd(req.descriptionMarkdown());
-        blog.setDescriptionHtml(md.toSafeHtml(req.descriptionMarkdown()));
-        blog.setAuthorId(authorId);
-        blog = repo.save(blog);
-
-        var stored = storage.storeBlogImages(blog.getId(), images);
+        String html = md.toSafeHtml(req.descriptionMarkdown());
+        // Uploads are spooled before the transaction starts, it only covers the inserts
+        var staged = ingestion.stage(images);
+        try {
+            return tx.execute(status -> {
+                Blog blog = new Blog();
+                blog.setTitle(req.title());
+                blog.setDescriptionMd(req.descriptionMarkdown());
+                blog.setDescriptionHtml(html);
+                blog.setHtmlPolicyVersion(MarkdownService.POLICY_VERSION);
+                blog.setAuthorId(authorId);
+                blog = repo.save(blog);
+                statsRepo.recordPost(authorId, blog.getCreatedAt());
+
+                attachPendingImages(blog, staged);
+
+                // Delivered to followers' timelines only after this transaction commits
+                events.publishEvent(new BlogPublishedEvent(blog.getId(), authorId, blog.getCreatedAt()));
+                return mapToResponse(blog);
+            });
+        } catch (RuntimeException e) {
+            ingestion.discard(staged);
+            throw e;
+        }
+    }
+
+    // Images are registered as PENDING; ImageIngestionService moves them into place after commit
+    private void attachPendingImages(Blog blog, List<StagedFile> staged) {
+        if (staged.isEmpty()) return;
         var imgEntities = new ArrayList<BlogImage>();
-        for (var s : stored) {
+        for (var s : staged) {
             var img = new BlogImage();
             img.setBlog(blog);
             img.setFileName(s.fileName());
-            img.setUrl(s.url());
+            // Content-addressed URL, valid as soon as ingestion has placed the blob
+            img.setUrl(storage.blobUrl(s.checksum()));
             img.setContentType(s.contentType());
             img.setSizeBytes(s.size());
+            img.setChecksum(s.checksum());
+            img.setStatus(ImageStatus.PENDING);
             imgEntities.add(img);
         }
+        // Saved explicitly so the ids exist before the event is built
+        imgEntities = new ArrayList<>(imageRepo.saveAll(imgEntities));
         blog.getImages().addAll(imgEntities);
-        blog = repo.save(blog);
 
-        return new BlogResponse(
-                blog.getId(),
-                blog.getTitle(),
-                blog.getDescriptionHtml(),
-                blog.getCreatedAt(),
-                blog.getAuthorId(),
-                blog.getImages().stream().map(BlogImage::getUrl).toList()
-        );
+        var pending = new ArrayList<BlogImagesStagedEvent.PendingImage>();
+        for (int i = 0; i < imgEntities.size(); i++) {
+            pending.add(new BlogImagesStagedEvent.PendingImage(imgEntities.get(i).getId(), staged.get(i)));
+        }
+        events.publishEvent(new BlogImagesStagedEvent(blog.getId(), pending));
     }
 
-    @Override
+    @Override @Transactional(readOnly = true)
     public List<BlogResponse> getAll() {
-        return repo.findAll().stream()
-                .map(this::mapToResponse)
-                .toList();
+        return mapToResponses(repo.findAll());
     }
 
+    @Override @Transactional(readOnly = true)
+    public BlogFeedPage getFeed(String cursor, Integer size) {
+        return loadFeedPage(FeedCursor.decode(cursor), pageSize(size));
+    }
+
+    @Override @Transactional(readOnly = true)
+    public BlogFeedPage getExportChunk(String cursor) {
+        return loadFeedPage(FeedCursor.decode(cursor), exportChunkSize);
+    }
+
+    // Not @Transactional: readPage calls follower-microservice, only loading the page holds a connection
     @Override
+    public BlogFeedPage getHomeTimeline(Long userId, String cursor, Integer size) {
+        int limit = pageSize(size);
+        List<TimelineRef> refs = timeline.readPage(userId, FeedCursor.decode(cursor), limit + 1);
+        return readOnlyTx.execute(status -> loadRefPage(refs, limit));
+    }
+
+    @Override @Transactional(readOnly = true)
+    public BlogFeedPage getFollowingFeed(List<Long> followingUserIds, String cursor, Integer size) {
+        if (followingUserIds == null || followingUserIds.isEmpty()) {
+            return new BlogFeedPage(List.of(), null);
+        }
+        int limit = pageSize(size);
+        return loadRefPage(feedAssembler.assemble(followingUserIds, FeedCursor.decode(cursor), limit + 1), limit);
+    }
+
+    @Override @Transactional(readOnly = true)
+    public BlogSearchPage search(String query, String cursor, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must not be empty");
+        }
+        if (query.length() > maxQueryLength) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query is longer than " + maxQueryLength + " characters");
+        }
+        int limit = pageSize(size);
+        SearchCursor from = SearchCursor.decode(cursor);
+        List<BlogSearchRow> rows = repo.search(query, from.rank(), from.id(), limit + 1, SearchHighlight.OPTIONS);
+
+        boolean hasMore = rows.size() > limit;
+        List<BlogSearchRow> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            BlogSearchRow last = page.get(page.size() - 1);
+            nextCursor = new SearchCursor(last.getRank(), last.getId()).encode();
+        }
+        return new BlogSearchPage(page.stream()
+                .map(r -> new BlogSearchResult(
+                        r.getId(),
+                        SearchHighlight.toHtml(r.getTitleHighlight()),
+                        SearchHighlight.toHtml(r.getSnippet()),
+                        Instant.EPOCH.plus(r.getCreatedAtMicros(), ChronoUnit.MICROS).atOffset(ZoneOffset.UTC),
+                        r.getAuthorId()))
+                .toList(), nextCursor);
+    }
+
+    private BlogFeedPage loadRefPage(List<TimelineRef> refs, int limit) {
+        Map<Long, Blog> byId = repo.findAllById(refs.stream().map(TimelineRef::blogId).toList()).stream()
+                .collect(Collectors.toMap(Blog::getId, Function.identity()));
+        List<Blog> blogs = refs.stream()
+                .map(r -> byId.get(r.blogId()))
+                .filter(Objects::nonNull)
+                .toList();
+        return toFeedPage(blogs, limit);
+    }
+
+    private int pageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private BlogFeedPage loadFeedPage(FeedCursor from, int limit) {
+        // One extra row tells us whether another page exists without a count query
+        return toFeedPage(repo.findFeedPage(from.createdAt(), from.id(), Limit.of(limit + 1)), limit);
+    }
+
+    private BlogFeedPage toFeedPage(List<Blog> blogs, int limit) {
+        boolean hasMore = blogs.size() > limit;
+        List<Blog> page = hasMore ? blogs.subList(0, limit) : blogs;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Blog last = page.get(page.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new BlogFeedPage(mapToResponses(page), nextCursor);
+    }
+
+    @Override @Transactional(readOnly = true)
     public List<BlogResponse> getFollowingBlogs(List<Long> followingUserIds) {
         if (followingUserIds == null || followingUserIds.isEmpty()) {
             return new ArrayList<>();
         }
         
-        return repo.findByAuthorIdIn(followingUserIds).stream()
-                .map(this::mapToResponse)
-                .toList();
+        return mapToResponses(repo.findByAuthorIdIn(followingUserIds));
     }
 
-    @Override
+    @Override @Transactional(readOnly = true)
     public List<BlogResponse> getMyBlogs(Long userId) {
-        return repo.findByAuthorId(userId).stream()
-                .map(this::mapToResponse)
-                .toList();
+        return mapToResponses(repo.findByAuthorId(userId));
     }
 
     @Override
@@ -92,41 +266,49 @@ public class BlogServiceImpl implements BlogService {
         return mapToResponse(blog);
     }
 
-    @Override @Transactional
+    @Override
     public BlogResponse update(Long id, Long authorId, BlogUpdateRequest req, List<MultipartFile> images) {
-        Blog blog = repo.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Blog not found with id: " + id));
-        
-        if (!blog.getAuthorId().equals(authorId)) {
-            throw new IllegalArgumentException("You can only update your own blogs");
-        }
-
-        blog.setTitle(req.title());
-        blog.setDescriptionMd(req.descriptionMarkdown());
-        blog.setDescriptionHtml(md.toSafeHtml(req.descriptionMarkdown()));
-
-        // Handle new images if provided
-        if (images != null && !images.isEmpty()) {
-            // Clear existing images
-            blog.getImages().clear();
-            
-            // Store new images
-            var stored = storage.storeBlogImages(blog.getId(), images);
-            var imgEntities = new ArrayList<BlogImage>();
-            for (var s : stored) {
-                var img = new BlogImage();
-                img.setBlog(blog);
-                img.setFileName(s.fileName());
-                img.setUrl(s.url());
-                img.setContentType(s.contentType());
-                img.setSizeBytes(s.size());
-                imgEntities.add(img);
-            }
-            blog.getImages().addAll(imgEntities);
+        String html = md.toSafeHtml(req.descriptionMarkdown());
+        var staged = ingestion.stage(images);
+        try {
+            return tx.execute(status -> {
+                Blog blog = repo.findById(id)
+                        .orElseThrow(() -> new NoSuchElementException("Blog not found with id: " + id));
+
+                if (!blog.getAuthorId().equals(authorId)) {
+                    throw new IllegalArgumentException("You can only update your own blogs");
+                }
+
+                blog.setTitle(req.title());
+                blog.setDescriptionMd(req.descriptionMarkdown());
+                blog.setDescriptionHtml(html);
+                blog.setHtmlPolicyVersion(MarkdownService.POLICY_VERSION);
+
+                // New images replace the existing ones
+                if (!staged.isEmpty()) {
+                    releaseBlobs(imageRepo.lockBlobReferences(blog.getId()));
+                    blog.getImages().clear();
+                    blog = repo.saveAndFlush(blog);
+                    attachPendingImages(blog, staged);
+                }
+
+                blog = repo.save(blog);
+                return mapToResponse(blog);
+            });
+        } catch (RuntimeException e) {
+            ingestion.discard(staged);
+            throw e;
         }
+    }
 
-        blog = repo.save(blog);
-        return mapToResponse(blog);
+    @Override @Transactional(readOnly = true)
+    public List<BlogImageStatusResponse> getImageStatus(Long blogId) {
+        if (!repo.existsById(blogId)) {
+            throw new NoSuchElementException("Blog not found with id: " + blogId);
+        }
+        return imageRepo.findByBlogId(blogId).stream()
+                .map(i -> new BlogImageStatusResponse(i.getId(), i.getUrl(), i.getStatus(), i.getSizeBytes(), i.getChecksum()))
+                .toList();
     }
 
     @Override @Transactional
@@ -138,17 +320,113 @@ public class BlogServiceImpl implements BlogService {
             throw new IllegalArgumentException("You can only delete your own blogs");
         }
 
+        releaseBlobs(imageRepo.lockBlobReferences(blog.getId()));
         repo.delete(blog);
+        repo.flush();
+        statsRepo.recordDelete(authorId);
+    }
+
+    // One primary-key lookup for the whole list; authors without posts get zeroes, in request order
+    @Override @Transactional(readOnly = true)
+    public List<AuthorStatsResponse> getAuthorStats(List<Long> authorIds) {
+        if (authorIds == null || authorIds.isEmpty()) return List.of();
+        var ids = new LinkedHashSet<Long>(authorIds);
+        ids.remove(null);
+        if (ids.size() > maxStatsIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxStatsIds + " author ids per request");
+        }
+
+        Map<Long, AuthorStats> byId = statsRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(AuthorStats::getAuthorId, Function.identity()));
+        return ids.stream()
+                .map(id -> {
+                    AuthorStats s = byId.get(id);
+                    return s == null
+                            ? new AuthorStatsResponse(id, 0, null)
+                            : new AuthorStatsResponse(id, s.getPostCount(), s.getLastPostAt());
+                })
+                .toList();
+    }
+
+    // One reference per image row; the files go once BlobGarbageCollector finds the count at zero
+    private void releaseBlobs(List<String> blobRefs) {
+        blobRefs.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .forEach((sha256, count) -> blobRepo.release(sha256, count.intValue()));
+    }
+
+    // Package-private for the JMH benchmarks (benchmarks/); needs only the blog and its images
+    BlogResponse mapToResponse(Blog blog) {
+        List<BlogImageResponse> images = new ArrayList<>();
+        for (BlogImage image : blog.getImages()) {
+            if (image.getStatus() == ImageStatus.FAILED) continue;
+            var srcset = new SrcsetBuilder(image.getUrl(), image.getWidth(), image.getHeight());
+            image.getVariants().forEach(v -> srcset.add(v.getUrl(), v.getWidth()));
+            images.add(srcset.build());
+        }
+        return toResponse(blog, images);
     }
 
-    private BlogResponse mapToResponse(Blog blog) {
+    // List variant: images and their derivatives are fetched per batch of blogs, so the query count
+    // does not grow with the result size
+    private List<BlogResponse> mapToResponses(List<Blog> blogs) {
+        if (blogs.isEmpty()) return List.of();
+
+        List<Long> ids = blogs.stream().map(Blog::getId).toList();
+        Map<Long, Map<Long, SrcsetBuilder>> imagesByBlog = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IMAGE_LOOKUP_BATCH) {
+            var batch = ids.subList(from, Math.min(from + IMAGE_LOOKUP_BATCH, ids.size()));
+            for (BlogImageUrlView view : imageRepo.findUrlsByBlogIds(batch)) {
+                // Rows come ordered by image id, one per variant
+                SrcsetBuilder srcset = imagesByBlog.computeIfAbsent(view.getBlogId(), k -> new LinkedHashMap<>())
+                        .computeIfAbsent(view.getImageId(), k -> new SrcsetBuilder(view.getUrl(), view.getWidth(), view.getHeight()));
+                if (view.getVariantUrl() != null) {
+                    srcset.add(view.getVariantUrl(), view.getVariantWidth());
+                }
+            }
+        }
+
+        return blogs.stream()
+                .map(b -> toResponse(b, imagesByBlog.getOrDefault(b.getId(), Map.of()).values().stream()
+                        .map(SrcsetBuilder::build)
+                        .toList()))
+                .toList();
+    }
+
+    private BlogResponse toResponse(Blog blog, List<BlogImageResponse> images) {
         return new BlogResponse(
                 blog.getId(),
                 blog.getTitle(),
                 blog.getDescriptionHtml(),
                 blog.getCreatedAt(),
                 blog.getAuthorId(),
-                blog.getImages().stream().map(BlogImage::getUrl).toList()
+                images.stream().map(BlogImageResponse::url).toList(),
+                images
         );
     }
+
+    // Derivatives in ascending width, then the original itself when its width is known
+    private static final class SrcsetBuilder {
+        private final String url;
+        private final Integer width;
+        private final Integer height;
+        private final StringJoiner srcset = new StringJoiner(", ");
+        private boolean hasVariants;
+
+        SrcsetBuilder(String url, Integer width, Integer height) {
+            this.url = url; this.width = width; this.height = height;
+        }
+
+        void add(String variantUrl, int variantWidth) {
+            srcset.add(variantUrl + " " + variantWidth + "w");
+            hasVariants = true;
+        }
+
+        BlogImageResponse build() {
+            if (!hasVariants) return new BlogImageResponse(url, width, height, null);
+            String full = width == null ? srcset.toString() : srcset + ", " + url + " " + width + "w";
+            return new BlogImageResponse(url, width, height, full);
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogImageRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.ImageFileView;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Backfills srcset derivatives for existing uploads. Start the service once with
+ * --regenerate-derivatives (only images that have none yet) or --regenerate-derivatives=all
+ * (everything, e.g. after changing app.images.derivatives.widths).
+ */
+@Component
+public class DerivativeRegenerationRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(DerivativeRegenerationRunner.class);
+    private static final String OPTION = "regenerate-derivatives";
+    private static final int BATCH = 500;
+
+    private final BlogImageRepository imageRepo;
+    private final ImageIngestionService ingestion;
+
+    public DerivativeRegenerationRunner(BlogImageRepository imageRepo, ImageIngestionService ingestion) {
+        this.imageRepo = imageRepo;
+        this.ingestion = ingestion;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) return;
+        List<String> values = args.getOptionValues(OPTION);
+        boolean onlyMissing = !values.contains("all");
+
+        long afterId = 0;
+        int queued = 0;
+        // Images of one blob share its derivatives: rewriting them once per image would only
+        // re-render the same files, so every blob is queued once for all of its images
+        Set<String> blobs = new HashSet<>();
+        while (true) {
+            List<ImageFileView> batch = imageRepo.findReadyAfter(afterId, onlyMissing, Limit.of(BATCH));
+            if (batch.isEmpty()) break;
+            for (ImageFileView image : batch) {
+                if (image.getBlobSha256() == null) {
+                    ingestion.submitDerivatives(image, !onlyMissing);
+                    queued++;
+                } else if (blobs.add(image.getBlobSha256())) {
+                    ingestion.submitBlobDerivatives(image.getBlobSha256(), !onlyMissing);
+                    queued++;
+                }
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        log.info("Queued derivative regeneration for {} blobs and per-blog images", queued);
+    }
+}
@@ -0,0 +1,89 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import rs.ac.uns.ftn.informatika.jpa.Repository.AuthorPostRow;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.TimelineRef;
+import rs.ac.uns.ftn.informatika.jpa.Util.FeedCursor;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Builds a multi-author feed page by k-way merging per-author streams instead of
+ * sorting one big IN-list. Each author is read newest-first through the
+ * (author_id, created_at desc, id desc) index, a few posts at a time, and refilled
+ * from its own cursor only when the merge actually drains it.
+ *
+ * The merged output is globally ordered, so a single (created_at, id) cursor
+ * taken from the last emitted post resumes every author exactly.
+ */
+@Component
+public class FeedAssembler {
+    private final BlogRepository repo;
+
+    public FeedAssembler(BlogRepository repo) {
+        this.repo = repo;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TimelineRef> assemble(List<Long> authorIds, FeedCursor from, int limit) {
+        List<Long> authors = new ArrayList<>(new LinkedHashSet<>(authorIds));
+        if (authors.isEmpty() || limit <= 0) return List.of();
+
+        // With many authors each one contributes only a few posts to a page, so start small and refill on demand
+        int batch = Math.max(2, Math.min(limit, (2 * limit + authors.size() - 1) / authors.size()));
+
+        Map<Long, AuthorStream> streams = new LinkedHashMap<>();
+        for (AuthorPostRow row : repo.findNewestPerAuthor(authors, from.createdAt(), from.id(), batch)) {
+            streams.computeIfAbsent(row.getAuthorId(), AuthorStream::new).buffer.add(toRef(row));
+        }
+
+        PriorityQueue<AuthorStream> heap = new PriorityQueue<>(Math.max(1, streams.size()),
+                (a, b) -> TimelineRef.NEWEST_FIRST.compare(a.buffer.peek(), b.buffer.peek()));
+        for (AuthorStream stream : streams.values()) {
+            stream.exhausted = stream.buffer.size() < batch;
+            heap.add(stream);
+        }
+
+        List<TimelineRef> out = new ArrayList<>(limit);
+        while (out.size() < limit && !heap.isEmpty()) {
+            AuthorStream stream = heap.poll();
+            TimelineRef next = stream.buffer.poll();
+            out.add(next);
+
+            if (stream.buffer.isEmpty() && !stream.exhausted) {
+                List<TimelineRef> more = repo.findRefsByAuthorId(stream.authorId, next.createdAt(), next.blogId(), Limit.of(batch));
+                stream.buffer.addAll(more);
+                stream.exhausted = more.size() < batch;
+            }
+            if (!stream.buffer.isEmpty()) heap.add(stream);
+        }
+        return out;
+    }
+
+    private static TimelineRef toRef(AuthorPostRow row) {
+        Instant createdAt = Instant.EPOCH.plus(row.getCreatedAtMicros(), ChronoUnit.MICROS);
+        return new TimelineRef(row.getBlogId(), createdAt.atOffset(ZoneOffset.UTC));
+    }
+
+    private static final class AuthorStream {
+        private final Long authorId;
+        private final ArrayDeque<TimelineRef> buffer = new ArrayDeque<>();
+        private boolean exhausted;
+
+        private AuthorStream(Long authorId) {
+            this.authorId = authorId;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import rs.ac.uns.ftn.informatika.jpa.Model.BlogImageVariant;
+import rs.ac.uns.ftn.informatika.jpa.Model.ImageStatus;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlobRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogImageRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.ImageFileView;
+import rs.ac.uns.ftn.informatika.jpa.Util.FileStorageService;
+import rs.ac.uns.ftn.informatika.jpa.Util.FileStorageService.StagedFile;
+import rs.ac.uns.ftn.informatika.jpa.Util.ImageDerivativeGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Second half of an image upload. The request thread only spools (and hashes) files into
+ * staging and commits the blog with PENDING images; after the commit every image is handed
+ * to the imageIngestExecutor, which takes a reference on the content-addressed blob, moves
+ * the bytes into the blob store unless they are already there, marks the image READY and
+ * finally renders the srcset derivatives.
+ */
+@Service
+public class ImageIngestionService {
+    private static final Logger log = LoggerFactory.getLogger(ImageIngestionService.class);
+
+    private final FileStorageService storage;
+    private final BlogImageRepository imageRepo;
+    private final BlobRepository blobRepo;
+    private final ImageDerivativeGenerator derivatives;
+    private final ThreadPoolTaskExecutor workers;
+    private final TransactionTemplate tx;
+    private final Counter dedupHits;
+    private final Counter dedupBytes;
+
+    public ImageIngestionService(FileStorageService storage, BlogImageRepository imageRepo, BlobRepository blobRepo,
+                                 ImageDerivativeGenerator derivatives,
+                                 @Qualifier("imageIngestExecutor") ThreadPoolTaskExecutor workers,
+                                 PlatformTransactionManager txManager, MeterRegistry meters) {
+        this.storage = storage;
+        this.imageRepo = imageRepo;
+        this.blobRepo = blobRepo;
+        this.derivatives = derivatives;
+        this.workers = workers;
+        this.tx = new TransactionTemplate(txManager);
+        this.dedupHits = Counter.builder("blog.blobs.dedup.hits")
+                .description("Uploads whose bytes were already stored")
+                .register(meters);
+        this.dedupBytes = Counter.builder("blog.blobs.dedup.bytes")
+                .description("Bytes not written to disk thanks to deduplication")
+                .baseUnit("bytes")
+                .register(meters);
+    }
+
+    // Backpressure: refuse the upload up front instead of spooling files nobody will pick up soon
+    public List<StagedFile> stage(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) return List.of();
+        long incoming = files.stream().filter(f -> !f.isEmpty()).count();
+        if (incoming > remainingCapacity()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Image ingestion queue is full, retry later");
+        }
+        return storage.stageBlogImages(files);
+    }
+
+    // For uploads whose transaction never committed
+    public void discard(List<StagedFile> staged) {
+        staged.forEach(s -> storage.discardStaged(s.fileName()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onImagesStaged(BlogImagesStagedEvent event) {
+        for (var image : event.images()) {
+            workers.execute(() -> ingest(event.blogId(), image.imageId(), image.file()));
+        }
+    }
+
+    // Picks up images a previous run accepted but never finished (crash or shutdown mid-queue)
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<ImageFileView> pending = imageRepo.findByStatus(ImageStatus.PENDING);
+        for (ImageFileView p : pending) {
+            if (p.getChecksum() != null && storage.isStaged(p.getFileName())) {
+                var staged = new StagedFile(p.getFileName(), p.getContentType(),
+                        p.getSizeBytes() == null ? 0 : p.getSizeBytes(), p.getChecksum());
+                workers.execute(() -> ingest(p.getBlogId(), p.getId(), staged));
+            } else {
+                complete(p.getId(), ImageStatus.FAILED);
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Resumed ingestion of {} pending blog images", pending.size());
+        }
+    }
+
+    // Queued like uploads, so a regeneration run is throttled by the same pool
+    public void submitDerivatives(ImageFileView image, boolean overwrite) {
+        workers.execute(() -> generateDerivatives(image.getBlogId(), List.of(image.getId()), image.getFileName(),
+                image.getBlobSha256(), overwrite));
+    }
+
+    // One task per blob instead of per image: its derivatives are rendered once and every
+    // READY image that references it gets the same variants
+    public void submitBlobDerivatives(String blobSha256, boolean overwrite) {
+        workers.execute(() -> generateDerivatives(null, imageRepo.findReadyIdsByBlob(blobSha256), null,
+                blobSha256, overwrite));
+    }
+
+    public int queueSize() {
+        return workers.getThreadPoolExecutor().getQueue().size();
+    }
+
+    private int remainingCapacity() {
+        return workers.getThreadPoolExecutor().getQueue().remainingCapacity();
+    }
+
+    private void ingest(Long blogId, Long imageId, StagedFile staged) {
+        String sha256 = staged.checksum();
+        // By extension, like the file controller; the client-declared upload type is not trusted
+        String contentType = MediaTypeFactory.getMediaType(staged.fileName()).map(MediaType::toString).orElse(null);
+        Boolean written;
+        boolean[] moved = new boolean[1];
+        try {
+            written = tx.execute(s -> {
+                if (imageRepo.completeIngestion(imageId, ImageStatus.READY, sha256) == 0) {
+                    // The image row was replaced or deleted while queued, nobody wants these bytes
+                    storage.discardStaged(staged.fileName());
+                    return null;
+                }
+                // The row lock taken here is held until commit, so the collector can not delete
+                // the blob file between the existence check and our reference becoming visible
+                blobRepo.acquire(sha256, staged.size(), contentType);
+                try {
+                    moved[0] = storage.commitBlob(staged);
+                    return moved[0];
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Ingestion of image {} for blog {} failed: {}", imageId, blogId, e.toString());
+            storage.discardStaged(staged.fileName());
+            if (moved[0]) releaseRolledBackBlob(sha256, staged.size(), contentType);
+            complete(imageId, ImageStatus.FAILED);
+            return;
+        }
+        if (written == null) return;
+        if (!written) {
+            dedupHits.increment();
+            dedupBytes.increment(staged.size());
+        }
+        generateDerivatives(blogId, List.of(imageId), staged.fileName(), sha256, false);
+    }
+
+    /**
+     * Blob-backed images share derivatives ({sha256}_w*.jpg next to the blob), so only the
+     * first upload of some bytes renders them. Images from before the blob store keep theirs
+     * under blogs/{blogId}. The original is already READY here, a failure only means no srcset.
+     */
+    private void generateDerivatives(Long blogId, List<Long> imageIds, String fileName, String blobSha256,
+                                     boolean overwrite) {
+        if (imageIds.isEmpty()) return;
+        Path original;
+        String baseName;
+        Function<String, String> urlOf;
+        if (blobSha256 != null) {
+            original = storage.blobPath(blobSha256);
+            baseName = blobSha256;
+            urlOf = storage::blobUrl;
+        } else {
+            original = storage.resolveBlogImage(blogId, fileName);
+            baseName = baseName(fileName);
+            urlOf = name -> storage.publicUrl(blogId, name);
+        }
+
+        ImageDerivativeGenerator.Result result;
+        try {
+            result = original == null ? null : derivatives.generate(original, baseName, overwrite);
+        } catch (Exception e) {
+            log.warn("Derivatives for images {} failed: {}", imageIds, e.toString());
+            return;
+        }
+        if (result == null) return;
+
+        boolean saved = false;
+        for (Long imageId : imageIds) {
+            saved |= saveDerivatives(imageId, result, urlOf);
+        }
+        // Blob derivatives are shared and go away with the blob, per-blog ones can be dropped right here
+        if (!saved && blobSha256 == null) {
+            result.derivatives().forEach(d -> storage.deleteBlogImage(blogId, d.fileName()));
+        }
+    }
+
+    private boolean saveDerivatives(Long imageId, ImageDerivativeGenerator.Result result,
+                                    Function<String, String> urlOf) {
+        Boolean saved = tx.execute(s -> imageRepo.findById(imageId).map(image -> {
+            image.setWidth(result.width());
+            image.setHeight(result.height());
+            image.getVariants().clear();
+            // Old rows must be gone before the new ones hit the (image, width, format) unique key
+            imageRepo.flush();
+            for (var d : result.derivatives()) {
+                var variant = new BlogImageVariant();
+                variant.setImage(image);
+                variant.setWidth(d.width());
+                variant.setHeight(d.height());
+                variant.setFormat(ImageDerivativeGenerator.FORMAT);
+                variant.setFileName(d.fileName());
+                variant.setUrl(urlOf.apply(d.fileName()));
+                variant.setSizeBytes(d.size());
+                image.getVariants().add(variant);
+            }
+            return true;
+        }).orElse(false));
+        return Boolean.TRUE.equals(saved);
+    }
+
+    // The file is already in blobs/ but its row rolled back. Deleting it here could race with
+    // a concurrent upload of the same bytes, so it becomes a released row and the collector
+    // reclaims it under its usual locking after the grace period.
+    private void releaseRolledBackBlob(String sha256, long size, String contentType) {
+        try {
+            tx.executeWithoutResult(s -> blobRepo.registerUnreferenced(sha256, size, contentType));
+        } catch (RuntimeException e) {
+            log.error("Blob {} is stored without a row and will not be collected: {}", sha256, e.toString());
+        }
+    }
+
+    private static String baseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private void complete(Long imageId, ImageStatus status) {
+        tx.executeWithoutResult(s -> imageRepo.completeIngestion(imageId, status, null));
+    }
+}
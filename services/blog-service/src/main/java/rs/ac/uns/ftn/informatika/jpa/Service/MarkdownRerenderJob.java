@@ -0,0 +1,65 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogMarkdownView;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogRepository;
+import rs.ac.uns.ftn.informatika.jpa.Util.MarkdownService;
+
+import java.util.List;
+
+/**
+ * Re-renders description_html rows left behind by an older MarkdownService.POLICY_VERSION.
+ * Runs once after startup, one short transaction per batch, so bumping the policy
+ * version and redeploying is all it takes.
+ */
+@Component
+public class MarkdownRerenderJob {
+    private static final Logger log = LoggerFactory.getLogger(MarkdownRerenderJob.class);
+
+    private final BlogRepository repo;
+    private final MarkdownService md;
+    private final TransactionTemplate tx;
+
+    @Value("${app.markdown.rerender.batch-size:200}")
+    private int batchSize;
+
+    public MarkdownRerenderJob(BlogRepository repo, MarkdownService md, PlatformTransactionManager txManager) {
+        this.repo = repo;
+        this.md = md;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    @Async("maintenanceExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void rerenderStaleHtml() {
+        int version = MarkdownService.POLICY_VERSION;
+        long afterId = 0;
+        int updated = 0;
+        while (true) {
+            List<BlogMarkdownView> batch = repo.findStaleHtml(version, afterId, Limit.of(batchSize));
+            if (batch.isEmpty()) break;
+
+            Integer count = tx.execute(status -> {
+                int n = 0;
+                for (BlogMarkdownView row : batch) {
+                    n += repo.updateRenderedHtml(row.getId(), md.render(row.getDescriptionMd()), version);
+                }
+                return n;
+            });
+            updated += count == null ? 0 : count;
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        if (updated > 0) {
+            log.info("Re-rendered {} blog descriptions to markdown policy version {}", updated, version);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.grpc.StatusRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rs.ac.uns.ftn.informatika.jpa.Grpc.FollowerGrpcClient;
+import rs.ac.uns.ftn.informatika.jpa.Model.CelebrityAuthor;
+import rs.ac.uns.ftn.informatika.jpa.Repository.CelebrityAuthorRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.TimelineRef;
+import rs.ac.uns.ftn.informatika.jpa.Repository.TimelineRepository;
+import rs.ac.uns.ftn.informatika.jpa.Util.FeedCursor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Home timelines: fan-out-on-write into home_timeline for regular authors,
+ * fan-out-on-read for authors whose follower count exceeds the celebrity threshold.
+ * A celebrity only goes back to fan-out-on-write once below the lower demote threshold,
+ * and their recent posts are copied into follower timelines when that happens.
+ */
+@Service
+public class TimelineService {
+    private static final Logger log = LoggerFactory.getLogger(TimelineService.class);
+    private static final int FANOUT_BATCH = 1000;
+    private static final String ALL = "all";
+
+    private final TimelineRepository timelineRepo;
+    private final CelebrityAuthorRepository celebrityRepo;
+    private final FeedAssembler feedAssembler;
+    private final FollowerGrpcClient followerClient;
+
+    @Value("${app.timeline.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${app.timeline.celebrity-threshold:5000}")
+    private int celebrityThreshold;
+
+    @Value("${app.timeline.celebrity-demote-threshold:4000}")
+    private int demoteThreshold;
+
+    // Every timeline read needs the whole set; a promotion elsewhere shows up within the expiry
+    private final Cache<String, Set<Long>> celebrities = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+
+    public TimelineService(TimelineRepository timelineRepo, CelebrityAuthorRepository celebrityRepo,
+                           FeedAssembler feedAssembler, FollowerGrpcClient followerClient) {
+        this.timelineRepo = timelineRepo;
+        this.celebrityRepo = celebrityRepo;
+        this.feedAssembler = feedAssembler;
+        this.followerClient = followerClient;
+    }
+
+    @Async("fanoutExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBlogPublished(BlogPublishedEvent event) {
+        List<Long> followers;
+        try {
+            // Asking for one more than the threshold is enough to tell a celebrity apart
+            followers = followerClient.getFollowerIds(event.authorId(), celebrityThreshold + 1);
+        } catch (StatusRuntimeException e) {
+            log.warn("Timeline fan-out skipped for blog {}: follower-microservice unavailable ({})",
+                    event.blogId(), e.getStatus().getCode());
+            return;
+        }
+
+        boolean celebrity = celebrityRepo.existsById(event.authorId());
+        // The gap between the two thresholds keeps an author hovering around one of them from
+        // flipping between push and pull on every post
+        if (followers.size() > celebrityThreshold || (celebrity && followers.size() >= demoteThreshold)) {
+            celebrityRepo.save(new CelebrityAuthor(event.authorId(), followers.size()));
+            if (!celebrity) celebrities.invalidateAll();
+            return;
+        }
+
+        List<Long> recipients = new ArrayList<>(followers);
+        recipients.add(event.authorId());
+        for (int from = 0; from < recipients.size(); from += FANOUT_BATCH) {
+            var batch = recipients.subList(from, Math.min(from + FANOUT_BATCH, recipients.size()));
+            // Posts from the celebrity era were only ever pulled; push them before the row goes,
+            // in the same transaction, so a reader always finds them in one of the two places
+            if (celebrity) timelineRepo.backfillTimelines(batch, event.authorId(), maxEntries);
+            timelineRepo.pushToTimelines(batch, event.blogId(), event.authorId(), event.createdAt());
+            timelineRepo.trimTimelines(batch, maxEntries);
+        }
+        if (celebrity) {
+            celebrityRepo.deleteById(event.authorId());
+            celebrities.invalidateAll();
+        }
+    }
+
+    // Blog refs of one timeline page, newest first: pushed entries merged with posts of followed celebrities.
+    // Deliberately not transactional: the follower lookup is a blocking gRPC call that must not hold a
+    // pooled connection, the two reads around it each run on their own.
+    public List<TimelineRef> readPage(Long userId, FeedCursor from, int limit) {
+        Set<Long> celebrityIds = celebrities.get(ALL, k -> Set.copyOf(celebrityRepo.findAllAuthorIds()));
+        List<Long> followed = celebrityIds.isEmpty() ? List.of() : new ArrayList<>(followedCelebrities(userId, celebrityIds));
+        if (celebrityIds.contains(userId)) followed.add(userId);
+
+        List<TimelineRef> pushed = timelineRepo.findPage(userId, from.createdAt(), from.id(), Limit.of(limit));
+        if (followed.isEmpty()) return pushed;
+
+        List<TimelineRef> pulled = feedAssembler.assemble(followed, from, limit);
+        return merge(pushed, pulled, limit);
+    }
+
+    private List<Long> followedCelebrities(Long userId, Set<Long> celebrities) {
+        try {
+            return followerClient.getFollowedAmong(userId, List.copyOf(celebrities));
+        } catch (StatusRuntimeException e) {
+            log.warn("Celebrity posts left out of timeline for user {}: follower-microservice unavailable ({})",
+                    userId, e.getStatus().getCode());
+            return List.of();
+        }
+    }
+
+    private static List<TimelineRef> merge(List<TimelineRef> a, List<TimelineRef> b, int limit) {
+        List<TimelineRef> out = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        int i = 0, j = 0;
+        while (out.size() < limit && (i < a.size() || j < b.size())) {
+            TimelineRef next;
+            if (j >= b.size() || (i < a.size() && TimelineRef.NEWEST_FIRST.compare(a.get(i), b.get(j)) <= 0)) {
+                next = a.get(i++);
+            } else {
+                next = b.get(j++);
+            }
+            // An author who just crossed the threshold can appear in both sources
+            if (seen.add(next.blogId())) out.add(next);
+        }
+        return out;
+    }
+}
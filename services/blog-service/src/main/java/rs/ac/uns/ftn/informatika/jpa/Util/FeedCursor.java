@@ -0,0 +1,44 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a feed ordered by (created_at desc, id desc).
+ * Clients only ever see the encoded token, never the raw values.
+ */
+public record FeedCursor(OffsetDateTime createdAt, Long id) {
+
+    // Sits before the newest possible post, used for the first page
+    private static final FeedCursor START = new FeedCursor(
+            OffsetDateTime.of(9999, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC), Long.MAX_VALUE);
+
+    public static FeedCursor start() {
+        return START;
+    }
+
+    public static FeedCursor decode(String token) {
+        if (token == null || token.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new FeedCursor(instant.atOffset(ZoneOffset.UTC), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            // Client input: a 400, not the 500 an unhandled IllegalArgumentException would give
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid feed cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
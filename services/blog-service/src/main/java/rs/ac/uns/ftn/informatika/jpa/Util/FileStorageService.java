@@ -4,42 +4,156 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
 
 @Service
 public class FileStorageService {
     private final Path root;
+    private final Path staging;
     private final String publicBaseUrl;
 
     public FileStorageService(
             @Value("${app.storage.local-root}") String rootDir,
-            @Value("${app.storage.public-base-url}") String baseUrl) {
+            @Value("${app.storage.public-base-url}") String baseUrl,
+            @Value("${app.storage.staging-dir:}") String stagingDir) {
         this.root = Paths.get(rootDir).toAbsolutePath();
+        // Same volume as the root by default, so promoting a staged file is a rename instead of a copy
+        this.staging = stagingDir.isBlank() ? root.resolve(".staging") : Paths.get(stagingDir).toAbsolutePath();
         this.publicBaseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length()-1) : baseUrl;
     }
 
-    public List<StoredFile> storeBlogImages(Long blogId, List<MultipartFile> files) {
-        List<StoredFile> out = new ArrayList<>();
+    /**
+     * Spools uploads into the staging area and hashes them on the way, in a single pass.
+     * This is the only part of the upload that runs on the request thread; placing the
+     * bytes in the blob store happens later in ImageIngestionService.
+     */
+    public List<StagedFile> stageBlogImages(List<MultipartFile> files) {
+        List<StagedFile> out = new ArrayList<>();
         if (files == null) return out;
         try {
-            Path dir = root.resolve("blogs").resolve(String.valueOf(blogId));
-            Files.createDirectories(dir);
+            Files.createDirectories(staging);
             for (MultipartFile f : files) {
                 if (f.isEmpty()) continue;
-                String safeName = UUID.randomUUID() + "_" + Path.of(f.getOriginalFilename()).getFileName().toString();
-                Path dest = dir.resolve(safeName);
-                Files.copy(f.getInputStream(), dest, StandardCopyOption.REPLACE_EXISTING);
-                String url = publicBaseUrl + "/blogs/" + blogId + "/" + safeName;
-                out.add(new StoredFile(safeName, url, f.getContentType(), f.getSize()));
+                String safeName = newFileName(f);
+                MessageDigest digest = sha256();
+                try (InputStream in = new DigestInputStream(f.getInputStream(), digest)) {
+                    Files.copy(in, staging.resolve(safeName));
+                }
+                out.add(new StagedFile(safeName, f.getContentType(), f.getSize(), HexFormat.of().formatHex(digest.digest())));
             }
             return out;
         } catch (Exception e) {
-            throw new RuntimeException("Storing files failed", e);
+            out.forEach(s -> discardStaged(s.fileName()));
+            throw new RuntimeException("Staging files failed", e);
         }
     }
 
-    public record StoredFile(String fileName, String url, String contentType, long size) {}
-}
\ No newline at end of file
+    /**
+     * Moves a staged file to blobs/ab/cd/{sha256}, or drops it when those bytes are already
+     * stored. Returns false for the latter. Callers hold the blob row lock (BlobRepository.acquire),
+     * which keeps the garbage collector from deleting the blob in between.
+     */
+    public boolean commitBlob(StagedFile staged) throws IOException {
+        Path dest = blobPath(staged.checksum());
+        if (Files.exists(dest)) {
+            discardStaged(staged.fileName());
+            return false;
+        }
+        Files.createDirectories(dest.getParent());
+        try {
+            Files.move(staging.resolve(staged.fileName()), dest, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(staging.resolve(staged.fileName()), dest, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    // The blob and every derivative rendered from it ({sha256}_w*.jpg)
+    public long deleteBlob(String sha256) {
+        Path original = blobPath(sha256);
+        long freed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(original.getParent(), sha256 + "*")) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                if (Files.deleteIfExists(file)) freed += size;
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Deleting blob " + sha256 + " failed", e);
+        }
+        return freed;
+    }
+
+    // blobs/ab/cd/{name}; name is a sha256 hex, optionally with a derivative suffix
+    public Path blobPath(String name) {
+        return root.resolve("blobs").resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name);
+    }
+
+    public String blobUrl(String name) {
+        return publicBaseUrl + "/blobs/" + name;
+    }
+
+    public Path blogsDir() {
+        return root.resolve("blogs");
+    }
+
+    public Path stagingDir() {
+        return staging;
+    }
+
+    public boolean isStaged(String fileName) {
+        return Files.isRegularFile(staging.resolve(fileName));
+    }
+
+    public void discardStaged(String fileName) {
+        deleteQuietly(staging.resolve(fileName));
+    }
+
+    public void deleteBlogImage(Long blogId, String fileName) {
+        deleteQuietly(root.resolve("blogs").resolve(String.valueOf(blogId)).resolve(fileName));
+    }
+
+    // Null for names that would escape blogs/{blogId}
+    public Path resolveBlogImage(Long blogId, String fileName) {
+        Path dir = root.resolve("blogs").resolve(String.valueOf(blogId));
+        Path file = dir.resolve(fileName).normalize();
+        return file.getParent().equals(dir) ? file : null;
+    }
+
+    public String publicUrl(Long blogId, String fileName) {
+        return publicBaseUrl + "/blogs/" + blogId + "/" + fileName;
+    }
+
+    private static String newFileName(MultipartFile f) {
+        return UUID.randomUUID() + "_" + Path.of(f.getOriginalFilename()).getFileName().toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Cleanup path only, a leftover file is harmless compared to masking the original failure
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    public record StagedFile(String fileName, String contentType, long size, String checksum) {}
+}
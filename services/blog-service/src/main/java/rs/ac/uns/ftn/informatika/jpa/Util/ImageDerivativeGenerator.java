@@ -0,0 +1,150 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Produces downscaled JPEG copies of an uploaded image for srcset. Uses only the JDK's
+ * ImageIO, so formats it can not decode (and non-images) simply get no derivatives.
+ */
+@Component
+public class ImageDerivativeGenerator {
+
+    public static final String FORMAT = "jpeg";
+
+    private final int[] widths;
+    private final float quality;
+
+    public ImageDerivativeGenerator(
+            @Value("${app.images.derivatives.widths:320,640,1280}") int[] widths,
+            @Value("${app.images.derivatives.quality:0.8}") float quality) {
+        this.widths = Arrays.stream(widths).distinct().sorted().toArray();
+        this.quality = quality;
+    }
+
+    /**
+     * Writes {baseName}_w{width}.jpg into the original's directory for every configured width
+     * smaller than the original. Without overwrite, derivatives already on disk (rendered for
+     * an earlier upload of the same blob) are reused and only the header is read.
+     * Returns null when the file is not a readable image.
+     */
+    public Result generate(Path original, String baseName, boolean overwrite) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                int[] targets = Arrays.stream(widths).filter(w -> w < width).toArray();
+                List<Derivative> out = new ArrayList<>();
+                if (targets.length == 0) return new Result(width, height, out);
+
+                if (!overwrite && Arrays.stream(targets).allMatch(w -> Files.exists(derivativePath(original, baseName, w)))) {
+                    for (int w : targets) {
+                        Path file = derivativePath(original, baseName, w);
+                        out.add(new Derivative(file.getFileName().toString(), w, scaledHeight(width, height, w), Files.size(file)));
+                    }
+                    return new Result(width, height, out);
+                }
+
+                // Decoding a 6000px photo at full size only to shrink it is the expensive part,
+                // so let the decoder skip pixels while staying at least as wide as the largest target
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / targets[targets.length - 1]);
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage source = reader.read(0, param);
+
+                // Largest first, each smaller one from the previous: no pass shrinks by much more
+                // than 2x, which keeps plain bicubic from aliasing
+                for (int i = targets.length - 1; i >= 0; i--) {
+                    int w = targets[i];
+                    int h = scaledHeight(width, height, w);
+                    source = scale(source, w, h);
+                    Path file = derivativePath(original, baseName, w);
+                    long size = writeJpeg(source, file);
+                    out.add(0, new Derivative(file.getFileName().toString(), w, h, size));
+                }
+                return new Result(width, height, out);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static Path derivativePath(Path original, String baseName, int width) {
+        return original.resolveSibling(baseName + "_w" + width + ".jpg");
+    }
+
+    private static int scaledHeight(int width, int height, int targetWidth) {
+        return Math.max(1, Math.round((float) height * targetWidth / width));
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        // RGB target: JPEG has no alpha, transparent areas become white instead of black
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // Returns the size of what this call wrote, a concurrent writer may have replaced the file since
+    private long writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(FORMAT).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        // Derivatives of a blob are shared and served as immutable, so the final name must only
+        // ever show a complete file: encode next to it and rename over it in one step
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            long size = Files.size(tmp);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return size;
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public record Result(int width, int height, List<Derivative> derivatives) {}
+
+    public record Derivative(String fileName, int width, int height, long size) {}
+}
@@ -1,5 +1,8 @@
 package rs.ac.uns.ftn.informatika.jpa.Util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.vladsch.flexmark.html.HtmlRenderer;
@@ -8,8 +11,16 @@ import com.vladsch.flexmark.util.ast.Node;
 import org.owasp.html.PolicyFactory;
 import org.owasp.html.Sanitizers;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 @Component
 public class MarkdownService {
+    // Bump whenever the parser setup or the sanitizer policy changes; stale description_html rows get re-rendered
+    public static final int POLICY_VERSION = 1;
+
     private final Parser parser = Parser.builder().build();
     private final HtmlRenderer renderer = HtmlRenderer.builder().build();
     private final PolicyFactory policy = Sanitizers.FORMATTING
@@ -18,9 +29,38 @@ public class MarkdownService {
             .and(Sanitizers.TABLES)
             .and(Sanitizers.IMAGES);
 
+    // Content-addressed: key is policy version + SHA-256 of the markdown, weight is the rendered HTML length
+    private final Cache<String, String> cache;
+
+    public MarkdownService(@Value("${app.markdown.cache.max-weight:20000000}") long maxWeight) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, String html) -> key.length() + html.length())
+                .recordStats()
+                .build();
+    }
+
     public String toSafeHtml(String markdown) {
+        return cache.get(cacheKey(markdown), k -> render(markdown));
+    }
+
+    // Bypasses the cache, for bulk re-renders that would only evict hot entries
+    public String render(String markdown) {
         Node doc = parser.parse(markdown);
         String html = renderer.render(doc);
         return policy.sanitize(html);
     }
+
+    public Cache<String, String> cache() {
+        return cache;
+    }
+
+    private static String cacheKey(String markdown) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(markdown.getBytes(StandardCharsets.UTF_8));
+            return POLICY_VERSION + ":" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
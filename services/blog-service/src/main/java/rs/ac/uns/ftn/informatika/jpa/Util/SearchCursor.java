@@ -0,0 +1,33 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in search results ordered by (rank desc, id desc).
+ * The rank is the exact float4 Postgres computed, so the next page resumes right after it.
+ */
+public record SearchCursor(float rank, long id) {
+
+    // ts_rank_cd with length normalization stays far below this, so every result sorts after it
+    private static final SearchCursor START = new SearchCursor(Float.MAX_VALUE, Long.MAX_VALUE);
+
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            return new SearchCursor(Float.intBitsToFloat(Integer.parseInt(parts[0])), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = Float.floatToIntBits(rank) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,27 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * ts_headline works on raw markdown, which may contain any HTML the author typed. Postgres marks
+ * the matches with control characters instead of tags; the text is escaped here and only then
+ * are the markers turned into {@code <mark>}, so the result is safe to render as HTML.
+ */
+public final class SearchHighlight {
+
+    public static final String START = "\u0002";
+    public static final String STOP = "\u0003";
+
+    // Passed to ts_headline; StartSel/StopSel take the literal characters
+    public static final String OPTIONS = "StartSel=\"" + START + "\", StopSel=\"" + STOP + "\"" +
+            ", MaxWords=35, MinWords=15, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private SearchHighlight() {}
+
+    public static String toHtml(String highlighted) {
+        if (highlighted == null) return null;
+        return HtmlUtils.htmlEscape(highlighted)
+                .replace(START, "<mark>")
+                .replace(STOP, "</mark>");
+    }
+}
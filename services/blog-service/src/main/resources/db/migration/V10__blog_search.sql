@@ -0,0 +1,11 @@
+-- Full-text search over title and markdown. A stored generated column is recomputed by Postgres
+-- on every insert/update of the row, so the GIN index below stays current without application code.
+-- 'simple' only lowercases: there is no Serbian stemmer and posts mix languages.
+-- Adding the column rewrites blogs once; run it outside peak hours on a large table.
+ALTER TABLE blogs ADD COLUMN IF NOT EXISTS search_tsv tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description_md, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_blogs_search ON blogs USING GIN (search_tsv);
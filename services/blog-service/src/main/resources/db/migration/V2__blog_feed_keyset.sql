@@ -0,0 +1,4 @@
+-- author_id is mapped on Blog but was never part of V1; add it here so later migrations can rely on it
+ALTER TABLE blogs ADD COLUMN IF NOT EXISTS author_id BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_blogs_created_at_id ON blogs (created_at DESC, id DESC);
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS home_timeline (
+                               user_id    BIGINT NOT NULL,
+                               blog_id    BIGINT NOT NULL REFERENCES blogs(id) ON DELETE CASCADE,
+                               author_id  BIGINT NOT NULL,
+                               created_at TIMESTAMPTZ NOT NULL,
+                               PRIMARY KEY (user_id, blog_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_home_timeline_user_created ON home_timeline (user_id, created_at DESC, blog_id DESC);
+
+CREATE TABLE IF NOT EXISTS celebrity_authors (
+                                   author_id      BIGINT PRIMARY KEY,
+                                   follower_count INTEGER NOT NULL,
+                                   updated_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,2 @@
+-- Per-author newest-first reads for the k-way merged following feed
+CREATE INDEX IF NOT EXISTS idx_blogs_author_created ON blogs (author_id, created_at DESC, id DESC);
@@ -0,0 +1,2 @@
+-- Existing rows were rendered with the policy that became version 1
+ALTER TABLE blogs ADD COLUMN IF NOT EXISTS html_policy_version INTEGER NOT NULL DEFAULT 1;
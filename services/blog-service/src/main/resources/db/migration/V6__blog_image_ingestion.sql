@@ -0,0 +1,7 @@
+-- Images stored before the ingestion pipeline were written synchronously, so they are READY
+ALTER TABLE blog_images ADD COLUMN IF NOT EXISTS status VARCHAR(16) NOT NULL DEFAULT 'READY';
+ALTER TABLE blog_images ADD COLUMN IF NOT EXISTS checksum VARCHAR(64);
+ALTER TABLE blog_images ALTER COLUMN status SET DEFAULT 'PENDING';
+
+-- Startup recovery only ever looks for unfinished images
+CREATE INDEX IF NOT EXISTS idx_blog_images_pending ON blog_images (id) WHERE status = 'PENDING';
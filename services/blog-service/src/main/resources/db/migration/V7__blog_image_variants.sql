@@ -0,0 +1,14 @@
+ALTER TABLE blog_images ADD COLUMN IF NOT EXISTS width INTEGER;
+ALTER TABLE blog_images ADD COLUMN IF NOT EXISTS height INTEGER;
+
+CREATE TABLE IF NOT EXISTS blog_image_variants (
+    id         BIGSERIAL PRIMARY KEY,
+    image_id   BIGINT       NOT NULL REFERENCES blog_images(id) ON DELETE CASCADE,
+    width      INTEGER      NOT NULL,
+    height     INTEGER      NOT NULL,
+    format     VARCHAR(16)  NOT NULL,
+    file_name  VARCHAR(255) NOT NULL,
+    url        TEXT         NOT NULL,
+    size_bytes BIGINT,
+    CONSTRAINT uq_blog_image_variants_image_width UNIQUE (image_id, width, format)
+);
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS blobs (
+    sha256       VARCHAR(64)  PRIMARY KEY,
+    size_bytes   BIGINT       NOT NULL,
+    content_type VARCHAR(127),
+    ref_count    INTEGER      NOT NULL,
+    created_at   TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    released_at  TIMESTAMPTZ
+);
+
+-- The collector only ever looks at blobs that lost their last reference
+CREATE INDEX IF NOT EXISTS idx_blobs_unreferenced ON blobs (released_at) WHERE ref_count <= 0;
+
+-- Images uploaded before this stay under blogs/{id}/ and hold no blob reference
+ALTER TABLE blog_images ADD COLUMN IF NOT EXISTS blob_sha256 VARCHAR(64);
@@ -0,0 +1,12 @@
+-- Per-author counters kept by BlogServiceImpl in the same transaction as the post itself
+CREATE TABLE IF NOT EXISTS author_stats (
+    author_id    BIGINT      PRIMARY KEY,
+    post_count   INTEGER     NOT NULL,
+    last_post_at TIMESTAMPTZ,
+    updated_at   TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Blogs from before V2 have no author_id and stay out of the counters
+INSERT INTO author_stats (author_id, post_count, last_post_at)
+SELECT author_id, count(*), max(created_at) FROM blogs WHERE author_id IS NOT NULL GROUP BY author_id
+ON CONFLICT (author_id) DO NOTHING;
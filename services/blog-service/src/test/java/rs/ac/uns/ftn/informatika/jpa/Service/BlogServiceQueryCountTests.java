@@ -0,0 +1,109 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import rs.ac.uns.ftn.informatika.jpa.Model.Blog;
+import rs.ac.uns.ftn.informatika.jpa.Model.BlogImage;
+import rs.ac.uns.ftn.informatika.jpa.Util.FileStorageService;
+import rs.ac.uns.ftn.informatika.jpa.Util.MarkdownService;
+
+import java.time.OffsetDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the list read paths against N+1 regressions: the number of statements
+ * must not depend on how many blogs are returned.
+ */
+@DataJpaTest
+@Import({BlogServiceImpl.class, FeedAssembler.class, MarkdownService.class, FileStorageService.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BlogServiceQueryCountTests {
+
+	private static final long AUTHOR_ID = 7L;
+
+	@Autowired
+	private BlogService service;
+
+	@Autowired
+	private EntityManager em;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@MockitoBean
+	private TimelineService timelineService;
+
+	@MockitoBean
+	private ImageIngestionService imageIngestionService;
+
+	private Statistics stats;
+
+	@BeforeEach
+	void setUp() {
+		stats = emf.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void getAllRunsFixedNumberOfQueries() {
+		assertConstantQueryCount(() -> service.getAll().size());
+	}
+
+	@Test
+	void getMyBlogsRunsFixedNumberOfQueries() {
+		assertConstantQueryCount(() -> service.getMyBlogs(AUTHOR_ID).size());
+	}
+
+	@Test
+	void feedPageRunsFixedNumberOfQueries() {
+		assertConstantQueryCount(() -> service.getFeed(null, 100).items().size());
+	}
+
+	private void assertConstantQueryCount(Supplier<Integer> read) {
+		seed(3);
+		long small = countStatements(read, 3);
+
+		seed(27);
+		long large = countStatements(read, 30);
+
+		assertThat(large).isEqualTo(small);
+		assertThat(large).isLessThanOrEqualTo(2);
+	}
+
+	private long countStatements(Supplier<Integer> read, int expectedSize) {
+		em.clear();
+		stats.clear();
+		assertThat(read.get()).isEqualTo(expectedSize);
+		return stats.getPrepareStatementCount();
+	}
+
+	private void seed(int count) {
+		for (int i = 0; i < count; i++) {
+			Blog blog = new Blog();
+			blog.setTitle("Blog " + i);
+			blog.setDescriptionMd("text");
+			blog.setDescriptionHtml("<p>text</p>");
+			blog.setAuthorId(AUTHOR_ID);
+			blog.setCreatedAt(OffsetDateTime.now().minusMinutes(i));
+			for (int j = 0; j < 2; j++) {
+				BlogImage img = new BlogImage();
+				img.setBlog(blog);
+				img.setFileName("img" + j + ".jpg");
+				img.setUrl("http://localhost/files/blogs/" + i + "/img" + j + ".jpg");
+				blog.getImages().add(img);
+			}
+			em.persist(blog);
+		}
+		em.flush();
+	}
+}
@@ -0,0 +1,117 @@
+package rs.ac.uns.ftn.informatika.jpa.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import rs.ac.uns.ftn.informatika.jpa.Repository.AuthorPostRow;
+import rs.ac.uns.ftn.informatika.jpa.Repository.BlogRepository;
+import rs.ac.uns.ftn.informatika.jpa.Repository.TimelineRef;
+import rs.ac.uns.ftn.informatika.jpa.Util.FeedCursor;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeedAssemblerTests {
+
+	private static final OffsetDateTime BASE = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+	private final List<Post> posts = new ArrayList<>();
+	private BlogRepository repo;
+	private FeedAssembler assembler;
+
+	@BeforeEach
+	void setUp() {
+		// Author 1 posts every minute, author 2 every 7 minutes, author 3 only twice
+		long id = 1;
+		for (int m = 0; m < 60; m++) posts.add(new Post(id++, 1L, BASE.plusMinutes(m)));
+		for (int m = 0; m < 60; m += 7) posts.add(new Post(id++, 2L, BASE.plusMinutes(m)));
+		posts.add(new Post(id++, 3L, BASE.plusMinutes(30)));
+		posts.add(new Post(id, 3L, BASE.plusMinutes(30)));
+
+		repo = mock(BlogRepository.class);
+		when(repo.findNewestPerAuthor(anyList(), any(), anyLong(), anyInt())).thenAnswer(inv -> {
+			List<Long> authors = inv.getArgument(0);
+			FeedCursor cursor = new FeedCursor(inv.getArgument(1), inv.getArgument(2));
+			int perAuthor = inv.getArgument(3);
+			List<AuthorPostRow> rows = new ArrayList<>();
+			for (Long author : authors) {
+				newestBefore(author, cursor, perAuthor).forEach(p -> rows.add(p.row()));
+			}
+			return rows;
+		});
+		when(repo.findRefsByAuthorId(anyLong(), any(), anyLong(), any())).thenAnswer(inv -> {
+			FeedCursor cursor = new FeedCursor(inv.getArgument(1), inv.getArgument(2));
+			Limit limit = inv.getArgument(3);
+			return newestBefore(inv.getArgument(0), cursor, limit.max()).stream().map(Post::ref).toList();
+		});
+		assembler = new FeedAssembler(repo);
+	}
+
+	@Test
+	void pagesMatchGlobalOrderAndResumeExactly() {
+		List<Long> expected = posts.stream()
+				.sorted(Comparator.comparing(Post::ref, TimelineRef.NEWEST_FIRST))
+				.map(Post::id)
+				.toList();
+
+		List<Long> collected = new ArrayList<>();
+		FeedCursor cursor = FeedCursor.start();
+		while (true) {
+			List<TimelineRef> page = assembler.assemble(List.of(1L, 2L, 3L, 4L), cursor, 10);
+			if (page.isEmpty()) break;
+			page.forEach(r -> collected.add(r.blogId()));
+			TimelineRef last = page.get(page.size() - 1);
+			cursor = FeedCursor.decode(new FeedCursor(last.createdAt(), last.blogId()).encode());
+		}
+
+		assertThat(collected).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void duplicateAuthorIdsAreMergedOnce() {
+		List<TimelineRef> page = assembler.assemble(List.of(3L, 3L), FeedCursor.start(), 10);
+		Map<Long, Long> counts = page.stream().collect(Collectors.groupingBy(TimelineRef::blogId, Collectors.counting()));
+
+		assertThat(page).hasSize(2);
+		assertThat(counts.values()).containsOnly(1L);
+	}
+
+	private List<Post> newestBefore(Long author, FeedCursor cursor, int limit) {
+		TimelineRef bound = new TimelineRef(cursor.id(), cursor.createdAt());
+		return posts.stream()
+				.filter(p -> p.authorId().equals(author))
+				.filter(p -> TimelineRef.NEWEST_FIRST.compare(p.ref(), bound) > 0)
+				.sorted(Comparator.comparing(Post::ref, TimelineRef.NEWEST_FIRST))
+				.limit(limit)
+				.toList();
+	}
+
+	private record Post(Long id, Long authorId, OffsetDateTime createdAt) {
+		TimelineRef ref() {
+			return new TimelineRef(id, createdAt);
+		}
+
+		AuthorPostRow row() {
+			long micros = ChronoUnit.MICROS.between(OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC), createdAt);
+			return new AuthorPostRow() {
+				public Long getAuthorId() { return authorId; }
+				public Long getBlogId() { return id; }
+				public Long getCreatedAtMicros() { return micros; }
+			};
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteRangeTests {
+
+	@Test
+	void parsesSingleRanges() {
+		assertThat(ByteRange.parse("bytes=0-99", 1000)).isEqualTo(new ByteRange(0, 99));
+		assertThat(ByteRange.parse("bytes=900-", 1000)).isEqualTo(new ByteRange(900, 999));
+		assertThat(ByteRange.parse("bytes=-100", 1000)).isEqualTo(new ByteRange(900, 999));
+		assertThat(ByteRange.parse("bytes=500-5000", 1000)).isEqualTo(new ByteRange(500, 999));
+		assertThat(ByteRange.parse("bytes=-5000", 1000)).isEqualTo(new ByteRange(0, 999));
+	}
+
+	@Test
+	void rejectsRangesOutsideTheFile() {
+		assertThat(ByteRange.parse("bytes=1000-", 1000)).isSameAs(ByteRange.UNSATISFIABLE);
+		assertThat(ByteRange.parse("bytes=-0", 1000)).isSameAs(ByteRange.UNSATISFIABLE);
+		assertThat(ByteRange.parse("bytes=0-10", 0)).isSameAs(ByteRange.UNSATISFIABLE);
+	}
+
+	@Test
+	void ignoresWhatItDoesNotServe() {
+		assertThat(ByteRange.parse(null, 1000)).isNull();
+		assertThat(ByteRange.parse("items=0-10", 1000)).isNull();
+		assertThat(ByteRange.parse("bytes=0-10,20-30", 1000)).isNull();
+		assertThat(ByteRange.parse("bytes=10-5", 1000)).isNull();
+		assertThat(ByteRange.parse("bytes=abc", 1000)).isNull();
+	}
+}
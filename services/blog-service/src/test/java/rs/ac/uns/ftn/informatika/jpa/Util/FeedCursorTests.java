@@ -0,0 +1,29 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTests {
+
+	@Test
+	void roundTripsToTheNanosecond() {
+		FeedCursor cursor = new FeedCursor(OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 123_456_000, ZoneOffset.UTC), 42L);
+
+		assertThat(FeedCursor.decode(cursor.encode())).isEqualTo(cursor);
+		assertThat(FeedCursor.decode(null)).isEqualTo(FeedCursor.start());
+	}
+
+	@Test
+	void tamperedTokenIsABadRequest() {
+		assertThatThrownBy(() -> FeedCursor.decode("bm90LWEtY3Vyc29y"))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+	}
+}
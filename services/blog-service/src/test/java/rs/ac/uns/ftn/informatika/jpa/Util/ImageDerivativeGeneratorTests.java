@@ -0,0 +1,71 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageDerivativeGeneratorTests {
+
+	private final ImageDerivativeGenerator generator = new ImageDerivativeGenerator(new int[]{1280, 320, 640}, 0.8f);
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void writesEveryWidthSmallerThanTheOriginal() throws Exception {
+		Path original = writePng(2000, 1000);
+
+		var result = generator.generate(original, "photo", true);
+
+		assertThat(result.width()).isEqualTo(2000);
+		assertThat(result.derivatives()).extracting(ImageDerivativeGenerator.Derivative::width)
+				.containsExactly(320, 640, 1280);
+		for (var d : result.derivatives()) {
+			BufferedImage written = ImageIO.read(dir.resolve(d.fileName()).toFile());
+			assertThat(written.getWidth()).isEqualTo(d.width());
+			assertThat(written.getHeight()).isEqualTo(d.width() / 2);
+		}
+	}
+
+	@Test
+	void skipsWidthsTheOriginalDoesNotReach() throws Exception {
+		var result = generator.generate(writePng(500, 500), "small", true);
+
+		assertThat(result.derivatives()).extracting(ImageDerivativeGenerator.Derivative::width)
+				.containsExactly(320);
+	}
+
+	@Test
+	void regeneratingReplacesDerivativesWithoutLeavingTempFiles() throws Exception {
+		Path original = writePng(2000, 1000);
+		Files.writeString(dir.resolve("photo_w640.jpg"), "x".repeat(1 << 20));
+
+		var result = generator.generate(original, "photo", true);
+
+		for (var d : result.derivatives()) {
+			assertThat(Files.size(dir.resolve(d.fileName()))).isEqualTo(d.size());
+		}
+		try (var files = Files.list(dir)) {
+			assertThat(files.map(f -> f.getFileName().toString())).noneMatch(name -> name.endsWith(".tmp"));
+		}
+	}
+
+	@Test
+	void ignoresFilesThatAreNotImages() throws Exception {
+		Path text = Files.writeString(dir.resolve("notes.txt"), "not an image");
+
+		assertThat(generator.generate(text, "notes", true)).isNull();
+	}
+
+	private Path writePng(int width, int height) throws Exception {
+		Path file = dir.resolve("original.png");
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", file.toFile());
+		return file;
+	}
+}
@@ -0,0 +1,31 @@
+package rs.ac.uns.ftn.informatika.jpa.Util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchHighlightTests {
+
+	@Test
+	void escapesTextBeforeMarkingMatches() {
+		String headline = "<script>x</script> " + SearchHighlight.START + "kotor" + SearchHighlight.STOP + " & more";
+
+		assertThat(SearchHighlight.toHtml(headline))
+				.isEqualTo("&lt;script&gt;x&lt;/script&gt; <mark>kotor</mark> &amp; more");
+		assertThat(SearchHighlight.toHtml(null)).isNull();
+	}
+
+	@Test
+	void cursorKeepsTheExactRank() {
+		SearchCursor cursor = new SearchCursor(0.1f / 3, 42L);
+
+		assertThat(SearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+		assertThat(SearchCursor.decode(null).rank()).isEqualTo(Float.MAX_VALUE);
+		assertThatThrownBy(() -> SearchCursor.decode("not-a-cursor"))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+	}
+}
@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# gRPC throughput of follower-microservice with ghz (https://ghz.sh), for comparing two builds
+# or two logging setups against the same Neo4j data.
+#
+#   ./loadtest/grpc-throughput.sh before     # e.g. on the commit before the logging change
+#   ./loadtest/grpc-throughput.sh after
+#
+# Each run writes <label>-<rpc>.txt summaries to loadtest/results; compare the "Requests/sec"
+# and latency distribution lines. Env: HOST (localhost:9091), CONCURRENCY (50), TOTAL (20000),
+# USERS (10000, ids are drawn from 1..USERS).
+set -euo pipefail
+
+HOST=${HOST:-localhost:9091}
+CONCURRENCY=${CONCURRENCY:-50}
+TOTAL=${TOTAL:-20000}
+USERS=${USERS:-10000}
+LABEL=${1:-run}
+DIR=$(cd "$(dirname "$0")" && pwd)
+PROTO="$DIR/../src/main/proto/follower_service.proto"
+OUT="$DIR/results"
+mkdir -p "$OUT"
+
+run() {
+    local rpc=$1 data=$2
+    echo "== $LABEL $rpc"
+    ghz --insecure --proto "$PROTO" --call "follower.FollowerService.$rpc" \
+        -d "$data" -c "$CONCURRENCY" -n "$TOTAL" "$HOST" | tee "$OUT/$LABEL-$rpc.txt"
+}
+
+PAIR="{\"follower_id\":\"{{randomInt 1 $USERS}}\",\"followed_id\":\"{{randomInt 1 $USERS}}\"}"
+
+# Write path: the handlers that used to log five to eight INFO lines per call
+run FollowUser "$PAIR"
+run UnfollowUser "$PAIR"
+# Read path, for reference
+run IsFollowingBatch "{\"follower_id\":\"{{randomInt 1 $USERS}}\",\"followed_ids\":[\"1\",\"2\",\"3\",\"4\",\"5\",\"6\",\"7\",\"8\",\"9\",\"10\"]}"
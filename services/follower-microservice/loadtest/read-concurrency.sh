@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# Blocking vs async reads at the same hardware budget. Start the service twice with identical
+# CPU/memory limits, pool sizes and thread pools, changing only the read mode:
+#
+#   blocking: FOLLOWER_READS_ASYNC=false GRPC_SERVER_EXECUTOR=bounded
+#   async:    FOLLOWER_READS_ASYNC=true  GRPC_SERVER_EXECUTOR=direct
+#
+# and add FOLLOWER_FOLLOWING_CACHE_MAX_SIZE=0B to both, otherwise nearly every read is a cache
+# hit and never reaches Neo4j. Then run, at rising concurrency:
+#
+#   ./loadtest/read-concurrency.sh blocking
+#   ./loadtest/read-concurrency.sh async
+#
+# Needs ghz (https://ghz.sh) and hey (https://github.com/rakyll/hey). For every concurrency
+# level it writes the tool summary plus the peak live JVM threads and the peak Neo4j pool
+# connections in use, sampled once a second from /actuator/metrics, to loadtest/results.
+# Env: GRPC (localhost:9091), HTTP (http://localhost:8081), LEVELS ("50 200 800"),
+# TOTAL (20000), USERS (10000, ids are drawn from 1..USERS).
+set -euo pipefail
+
+GRPC=${GRPC:-localhost:9091}
+HTTP=${HTTP:-http://localhost:8081}
+LEVELS=${LEVELS:-50 200 800}
+TOTAL=${TOTAL:-20000}
+USERS=${USERS:-10000}
+LABEL=${1:-run}
+DIR=$(cd "$(dirname "$0")" && pwd)
+PROTO="$DIR/../src/main/proto/follower_service.proto"
+OUT="$DIR/results"
+mkdir -p "$OUT"
+
+metric() {
+    curl -fs "$HTTP/actuator/metrics/$1" | grep -o '"value":[0-9.E]*' | head -1 | cut -d: -f2 | cut -d. -f1
+}
+
+# Najveca vrednost metrike dok radi komanda koja je prosledjena
+sample_peaks() {
+    local file=$1; shift
+    local threads=0 connections=0 t c
+    "$@" > "$file.tmp" &
+    local pid=$!
+    while kill -0 "$pid" 2>/dev/null; do
+        t=$(metric jvm.threads.live || echo 0)
+        c=$(metric neo4j.driver.connections.in.use || echo 0)
+        (( ${t:-0} > threads )) && threads=$t
+        (( ${c:-0} > connections )) && connections=$c
+        sleep 1
+    done
+    wait "$pid"
+    { cat "$file.tmp"; echo; echo "peak jvm.threads.live: $threads"; echo "peak neo4j.driver.connections.in.use: $connections"; } > "$file"
+    rm -f "$file.tmp"
+    tail -n 2 "$file"
+}
+
+for c in $LEVELS; do
+    echo "== $LABEL IsFollowingBatch c=$c"
+    sample_peaks "$OUT/$LABEL-grpc-c$c.txt" \
+        ghz --insecure --proto "$PROTO" --call follower.FollowerService.IsFollowingBatch \
+            -d "{\"follower_id\":\"{{randomInt 1 $USERS}}\",\"followed_ids\":[\"1\",\"2\",\"3\",\"4\",\"5\"]}" \
+            -c "$c" -n "$TOTAL" "$GRPC"
+
+    echo "== $LABEL GET /check c=$c"
+    sample_peaks "$OUT/$LABEL-http-c$c.txt" \
+        hey -c "$c" -n "$TOTAL" "$HTTP/api/followers/check?followerId=$(( RANDOM % USERS + 1 ))&followedId=1"
+done
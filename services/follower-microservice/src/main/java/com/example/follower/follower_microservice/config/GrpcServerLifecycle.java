@@ -0,0 +1,77 @@
+package com.example.follower.follower_microservice.config;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the gRPC server with the application context and drains it on shutdown: new calls
+ * are refused, in-flight calls get the grace period to finish, whatever is left is cancelled.
+ * Runs inside Spring's lifecycle, so the Neo4j driver is still open while calls drain.
+ */
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    private final NettyServerBuilder builder;
+    private final ExecutorService handlerExecutor;
+    private final int port;
+    private final Duration shutdownGracePeriod;
+    private volatile Server server;
+
+    public GrpcServerLifecycle(NettyServerBuilder builder, ExecutorService handlerExecutor, int port,
+                               Duration shutdownGracePeriod) {
+        this.builder = builder;
+        this.handlerExecutor = handlerExecutor;
+        this.port = port;
+        this.shutdownGracePeriod = shutdownGracePeriod;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start gRPC server on port " + port, e);
+        }
+        log.info("gRPC server started on port {}", port);
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        server = null;
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("gRPC calls still running after {}, cancelling them", shutdownGracePeriod);
+                current.shutdownNow();
+                current.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            if (handlerExecutor != null) {
+                handlerExecutor.shutdownNow();
+            }
+        }
+        log.info("gRPC server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -1,15 +1,25 @@
 package com.example.follower.follower_microservice.config;
 
 import com.example.follower.follower_microservice.grpc.FollowerGrpcService;
-import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import com.example.follower.follower_microservice.logging.GrpcRequestLogInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
-import javax.annotation.PostConstruct;
-import javax.annotation.PreDestroy;
-import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @Configuration
 public class ManualGrpcConfig {
@@ -17,23 +27,103 @@ public class ManualGrpcConfig {
     @Value("${grpc.server.port:9091}")
     private int grpcPort;
 
-    private Server grpcServer;
+    @Value("${grpc.server.address:0.0.0.0}")
+    private String address;
+
+    // bounded = ogranicen pool, direct = handleri na Netty event loop-u (samo za neblokirajuce pozive)
+    @Value("${grpc.server.executor:bounded}")
+    private String executor;
+
+    @Value("${grpc.server.executor-threads:32}")
+    private int executorThreads;
+
+    @Value("${grpc.server.executor-queue-capacity:1000}")
+    private int executorQueueCapacity;
+
+    @Value("${grpc.server.max-concurrent-calls-per-connection:200}")
+    private int maxConcurrentCallsPerConnection;
+
+    @Value("${grpc.server.max-inbound-message-size:4MB}")
+    private DataSize maxInboundMessageSize;
+
+    @Value("${grpc.server.max-inbound-metadata-size:8KB}")
+    private DataSize maxInboundMetadataSize;
+
+    @Value("${grpc.server.flow-control-window:1MB}")
+    private DataSize flowControlWindow;
+
+    @Value("${grpc.server.keepalive-time:PT1M}")
+    private Duration keepAliveTime;
+
+    @Value("${grpc.server.keepalive-timeout:PT20S}")
+    private Duration keepAliveTimeout;
+
+    @Value("${grpc.server.permit-keepalive-time:PT30S}")
+    private Duration permitKeepAliveTime;
 
+    @Value("${grpc.server.permit-keepalive-without-calls:true}")
+    private boolean permitKeepAliveWithoutCalls;
+
+    @Value("${grpc.server.max-connection-idle:PT10M}")
+    private Duration maxConnectionIdle;
+
+    @Value("${grpc.server.max-connection-age:PT30M}")
+    private Duration maxConnectionAge;
+
+    @Value("${grpc.server.max-connection-age-grace:PT30S}")
+    private Duration maxConnectionAgeGrace;
+
+    @Value("${grpc.server.shutdown-grace-period:PT20S}")
+    private Duration shutdownGracePeriod;
+
+    // Svaki poziv je observation "grpc.server": timer po rpc.method i grpc.status_code,
+    // grpc.server.active za pozive u toku, a span cim se doda tracing bridge
     @Bean
-    public Server grpcServer(FollowerGrpcService followerGrpcService) throws IOException {
-        grpcServer = ServerBuilder.forPort(grpcPort)
-                .addService(followerGrpcService)
-                .build()
-                .start();
-        
-        System.out.println("=== MANUAL gRPC Server started on port " + grpcPort + " ===");
-        
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            if (grpcServer != null) {
-                grpcServer.shutdown();
-            }
-        }));
-        
-        return grpcServer;
+    public ObservationGrpcServerInterceptor grpcObservationInterceptor(ObservationRegistry observationRegistry) {
+        return new ObservationGrpcServerInterceptor(observationRegistry);
+    }
+
+    @Bean
+    public GrpcServerLifecycle grpcServer(FollowerGrpcService followerGrpcService,
+                                          ObservationGrpcServerInterceptor grpcObservationInterceptor,
+                                          GrpcRequestLogInterceptor grpcRequestLogInterceptor) {
+        NettyServerBuilder builder = NettyServerBuilder.forAddress(new InetSocketAddress(address, grpcPort))
+                .addService(ServerInterceptors.intercept(followerGrpcService,
+                        grpcRequestLogInterceptor, grpcObservationInterceptor))
+                .maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection)
+                .maxInboundMessageSize((int) maxInboundMessageSize.toBytes())
+                .maxInboundMetadataSize((int) maxInboundMetadataSize.toBytes())
+                .flowControlWindow((int) flowControlWindow.toBytes())
+                .keepAliveTime(keepAliveTime.toMillis(), MILLISECONDS)
+                .keepAliveTimeout(keepAliveTimeout.toMillis(), MILLISECONDS)
+                .permitKeepAliveTime(permitKeepAliveTime.toMillis(), MILLISECONDS)
+                .permitKeepAliveWithoutCalls(permitKeepAliveWithoutCalls)
+                .maxConnectionIdle(maxConnectionIdle.toMillis(), MILLISECONDS)
+                .maxConnectionAge(maxConnectionAge.toMillis(), MILLISECONDS)
+                .maxConnectionAgeGrace(maxConnectionAgeGrace.toMillis(), MILLISECONDS);
+
+        ExecutorService handlerExecutor = null;
+        if ("direct".equalsIgnoreCase(executor)) {
+            builder.directExecutor();
+        } else if ("bounded".equalsIgnoreCase(executor)) {
+            handlerExecutor = boundedExecutor();
+            builder.executor(handlerExecutor);
+        } else {
+            throw new IllegalArgumentException("Unknown grpc.server.executor: " + executor + " (expected bounded or direct)");
+        }
+        return new GrpcServerLifecycle(builder, handlerExecutor, grpcPort, shutdownGracePeriod);
+    }
+
+    // Handleri blokiraju na Neo4j-u; ogranicen red odbija pozive pri preopterecenju umesto da ih gomila
+    private ExecutorService boundedExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(executorThreads, executorThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(executorQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "grpc-handler-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
     }
 }
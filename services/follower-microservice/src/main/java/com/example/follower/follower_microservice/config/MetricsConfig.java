@@ -0,0 +1,44 @@
+package com.example.follower.follower_microservice.config;
+
+import com.example.follower.follower_microservice.embedded.EmbeddedFollowGraph;
+import com.example.follower.follower_microservice.service.FollowingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+public class MetricsConfig {
+
+    // Hit rate, evikcije i zauzece kesa pracenih (cache_gets_total{cache="follower.following"} ...)
+    @Bean
+    @Profile("!embedded-graph")
+    public MeterBinder followingCacheMetrics(FollowingCache followingCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, followingCache.cache(), "follower.following");
+            Gauge.builder("follower.following.cache.bytes", followingCache, FollowingCache::weightedSize)
+                    .description("Approximate memory held by cached adjacency lists")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    // Velicina grafa u memoriji i delta koja ceka sazimanje (embedded-graph profil)
+    @Bean
+    @Profile("embedded-graph")
+    public MeterBinder embeddedGraphMetrics(EmbeddedFollowGraph graph) {
+        return registry -> {
+            Gauge.builder("follower.embedded.users", graph, EmbeddedFollowGraph::userCount)
+                    .description("Users in the in-process follow graph")
+                    .register(registry);
+            Gauge.builder("follower.embedded.follows", graph, EmbeddedFollowGraph::followCount)
+                    .description("FOLLOWS edges in the in-process follow graph")
+                    .register(registry);
+            Gauge.builder("follower.embedded.pending.changes", graph, EmbeddedFollowGraph::pendingChanges)
+                    .description("Edge changes not yet compacted into the CSR base")
+                    .register(registry);
+        };
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.follower.follower_microservice.config;
 
 import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Config;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.MetricsAdapter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.neo4j.core.transaction.Neo4jTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @EnableTransactionManagement
 public class Neo4jConfig {
@@ -21,9 +26,39 @@ public class Neo4jConfig {
     @Value("${spring.neo4j.authentication.password}")
     private String password;
 
+    // Pool konekcija; isti kljucevi kao Spring Boot auto-konfiguracija, koju ovaj bean zamenjuje
+    @Value("${spring.neo4j.pool.max-connection-pool-size:100}")
+    private int maxConnectionPoolSize;
+
+    @Value("${spring.neo4j.pool.connection-acquisition-timeout:PT5S}")
+    private Duration connectionAcquisitionTimeout;
+
+    @Value("${spring.neo4j.pool.idle-time-before-connection-test:PT30S}")
+    private Duration idleTimeBeforeConnectionTest;
+
+    @Value("${spring.neo4j.pool.max-connection-lifetime:PT1H}")
+    private Duration maxConnectionLifetime;
+
+    @Value("${spring.neo4j.connection-timeout:PT5S}")
+    private Duration connectionTimeout;
+
     @Bean
     public Driver neo4jDriver() {
-        return GraphDatabase.driver(uri, AuthTokens.basic(username, password));
+        // Metrike pool-a konekcija (neo4j.driver.connections.*) idu u Micrometer global registry,
+        // u koji Spring Boot dodaje Prometheus registry
+        // Kratak acquisition timeout: kada je pool pun, zahtev brzo dobija gresku umesto da visi minut.
+        // Konekcija neaktivna duze od idle-time-before-connection-test se proverava pre upotrebe,
+        // pa konekcije koje je prekinuo firewall/load balancer ne stignu do upita
+        Config config = Config.builder()
+                .withMaxConnectionPoolSize(maxConnectionPoolSize)
+                .withConnectionAcquisitionTimeout(connectionAcquisitionTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .withConnectionLivenessCheckTimeout(idleTimeBeforeConnectionTest.toMillis(), TimeUnit.MILLISECONDS)
+                .withMaxConnectionLifetime(maxConnectionLifetime.toMillis(), TimeUnit.MILLISECONDS)
+                .withConnectionTimeout(connectionTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .withDriverMetrics()
+                .withMetricsAdapter(MetricsAdapter.MICROMETER)
+                .build();
+        return GraphDatabase.driver(uri, AuthTokens.basic(username, password), config);
     }
 
     @Bean
@@ -0,0 +1,146 @@
+package com.example.follower.follower_microservice.config;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.exceptions.SessionExpiredException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned Cypher scripts from classpath:neo4j/migrations (V{n}__{description}.cypher,
+ * statements separated by ';'), applied in order at startup before the gRPC and HTTP servers
+ * accept traffic. Applied versions are recorded as (:__SchemaMigration) nodes with a checksum;
+ * editing an applied script fails startup, like Flyway in blog-service.
+ *
+ * Scripts must be idempotent (IF NOT EXISTS): two instances starting together may both run
+ * one. When Neo4j is unreachable the run is skipped with a warning, since nothing else in the
+ * service needs the database to start; the next start applies what is missing.
+ */
+@Component
+@Profile("!embedded-graph")
+public class Neo4jSchemaMigrations implements InitializingBean {
+    private static final Logger log = LoggerFactory.getLogger(Neo4jSchemaMigrations.class);
+
+    private static final String LOCATION = "classpath*:neo4j/migrations/V*__*.cypher";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.cypher");
+
+    private final Driver driver;
+    private final boolean enabled;
+
+    public Neo4jSchemaMigrations(Driver driver,
+                                 @Value("${follower.schema.migrate-on-startup:true}") boolean enabled) {
+        this.driver = driver;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int applied = migrate();
+            if (applied > 0) {
+                log.info("Applied {} Neo4j schema migration(s)", applied);
+            }
+        } catch (ServiceUnavailableException | SessionExpiredException e) {
+            log.warn("Neo4j is unreachable, schema migrations skipped until the next start: {}", e.getMessage());
+        }
+    }
+
+    // Vraca broj novoprimenjenih skripti
+    public int migrate() {
+        List<Migration> migrations = load();
+        int applied = 0;
+        try (Session session = driver.session()) {
+            session.run("CREATE CONSTRAINT schema_migration_version IF NOT EXISTS " +
+                    "FOR (m:__SchemaMigration) REQUIRE m.version IS UNIQUE").consume();
+            Map<Integer, String> done = session.run("MATCH (m:__SchemaMigration) " +
+                            "RETURN m.version AS version, m.checksum AS checksum")
+                    .list(r -> Map.entry(r.get("version").asInt(), r.get("checksum").asString()))
+                    .stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+            for (Migration migration : migrations) {
+                String checksum = done.get(migration.version());
+                if (checksum != null) {
+                    if (!checksum.equals(migration.checksum())) {
+                        throw new IllegalStateException("Neo4j migration V" + migration.version()
+                                + " was modified after it was applied");
+                    }
+                    continue;
+                }
+                // Schema naredbe ne mogu u istu transakciju sa upisom podataka, pa svaka ide zasebno
+                for (String statement : migration.statements()) {
+                    session.run(statement).consume();
+                }
+                session.run("MERGE (m:__SchemaMigration {version: $version}) " +
+                                "ON CREATE SET m.description = $description, m.checksum = $checksum, " +
+                                "m.appliedAt = datetime()",
+                        Map.of("version", migration.version(), "description", migration.description(),
+                                "checksum", migration.checksum())).consume();
+                log.info("Applied Neo4j migration V{} {}", migration.version(), migration.description());
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private static List<Migration> load() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION);
+            List<Migration> migrations = new ArrayList<>();
+            for (Resource resource : resources) {
+                Matcher name = FILE_NAME.matcher(resource.getFilename());
+                if (!name.matches()) {
+                    throw new IllegalStateException("Unexpected Neo4j migration file name: " + resource.getFilename());
+                }
+                String script = resource.getContentAsString(StandardCharsets.UTF_8);
+                migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                        checksum(script), statements(script)));
+            }
+            migrations.sort(Comparator.comparingInt(Migration::version));
+            return migrations;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> statements(String script) {
+        String withoutComments = script.lines()
+                .filter(line -> !line.strip().startsWith("//"))
+                .collect(Collectors.joining("\n"));
+        return Arrays.stream(withoutComments.split(";"))
+                .map(String::strip)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    private static String checksum(String script) {
+        CRC32 crc = new CRC32();
+        crc.update(script.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private record Migration(int version, String description, String checksum, List<String> statements) {}
+}
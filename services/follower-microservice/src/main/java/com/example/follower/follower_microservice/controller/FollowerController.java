@@ -1,20 +1,29 @@
 package com.example.follower.follower_microservice.controller;
 
+import com.example.follower.follower_microservice.dto.BatchFollowRequest;
+import com.example.follower.follower_microservice.dto.BatchFollowResponse;
 import com.example.follower.follower_microservice.dto.FollowRequest;
 import com.example.follower.follower_microservice.dto.FollowResponse;
+import com.example.follower.follower_microservice.dto.ImportResultDto;
+import com.example.follower.follower_microservice.dto.RecommendationPageDto;
 import com.example.follower.follower_microservice.dto.UserFollowersDto;
+import com.example.follower.follower_microservice.dto.UserSummaryDto;
 import com.example.follower.follower_microservice.entity.User;
+import com.example.follower.follower_microservice.service.FollowBatchService;
 import com.example.follower.follower_microservice.service.FollowerService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 //import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/followers")
@@ -22,32 +31,16 @@ import java.util.Set;
 public class FollowerController {
 
     private final FollowerService followerService;
-    private static final Logger log = LoggerFactory.getLogger(FollowerController.class);
+    private final FollowBatchService followBatchService;
 
-    public FollowerController(FollowerService followerService) {
+    public FollowerController(FollowerService followerService, FollowBatchService followBatchService) {
         this.followerService = followerService;
+        this.followBatchService = followBatchService;
     }
 
     @PostMapping("/follow")
     public ResponseEntity<FollowResponse> followUser(@Valid @RequestBody FollowRequest request) {
-        // Guard: zabrani pracenje samog sebe
-        if (request.getFollowerId().equals(request.getFollowedId())) {
-            FollowResponse response = FollowResponse.builder()
-                    .success(false)
-                    .message("User cannot follow themselves")
-                    .build();
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        }
-
-        // Guard: ako vec prati
-        if (followerService.isFollowing(request.getFollowerId(), request.getFollowedId())) {
-            FollowResponse response = FollowResponse.builder()
-                    .success(false)
-                    .message("User already follows the target user")
-                    .build();
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
-        }
-
+        // Samopracenje (400) i postojece pracenje (409) prijavljuje servis, GlobalExceptionHandler ih mapira
         boolean success = followerService.followUser(request.getFollowerId(), request.getFollowedId());
 
         FollowResponse response = FollowResponse.builder()
@@ -60,27 +53,38 @@ public class FollowerController {
 
     @PostMapping("/unfollow")
     public ResponseEntity<FollowResponse> unfollowUser(@Valid @RequestBody FollowRequest request) {
-        log.info("=== UNFOLLOW CONTROLLER START ===");
-        log.info("Received unfollow request: followerId={}, followedId={}", request.getFollowerId(), request.getFollowedId());
-        
         boolean success = followerService.unfollowUser(request.getFollowerId(), request.getFollowedId());
-        log.info("Unfollow service returned: {}", success);
 
         FollowResponse response = FollowResponse.builder()
                 .success(success)
                 .message(success ? "Successfully unfollowed user" : "Failed to unfollow user")
                 .build();
 
-        log.info("Sending response: success={}, message={}", response.isSuccess(), response.getMessage());
-        log.info("=== UNFOLLOW CONTROLLER END ===");
-        
         return ResponseEntity.status(success ? HttpStatus.OK : HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @PostMapping("/batch/follow")
+    public ResponseEntity<BatchFollowResponse> followAll(@Valid @RequestBody BatchFollowRequest request) {
+        return ResponseEntity.ok(followBatchService.followAll(request.getEdges()));
+    }
+
+    @PostMapping("/batch/unfollow")
+    public ResponseEntity<BatchFollowResponse> unfollowAll(@Valid @RequestBody BatchFollowRequest request) {
+        return ResponseEntity.ok(followBatchService.unfollowAll(request.getEdges()));
+    }
+
+    // Pocetni uvoz: telo je CSV "followerId,followedId" po liniji, cita se kao stream
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResultDto> importEdges(HttpServletRequest request) throws IOException {
+        try (Reader csv = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(followBatchService.importCsv(csv));
+        }
+    }
+
+    // Asinhroni odgovor: sa follower.reads.async servlet nit se oslobadja dok se ceka Neo4j
     @GetMapping("/{userId}/following/ids")
-    public ResponseEntity<List<Long>> getFollowingIds(@PathVariable Long userId) {
-        List<Long> followingIds = followerService.getFollowingIds(userId);
-        return ResponseEntity.ok(followingIds);
+    public CompletableFuture<ResponseEntity<List<Long>>> getFollowingIds(@PathVariable Long userId) {
+        return followerService.getFollowingIdsAsync(userId).thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/{userId}/followers/ids")
@@ -90,14 +94,14 @@ public class FollowerController {
     }
 
     @GetMapping("/{userId}/following")
-    public ResponseEntity<Set<User>> getFollowing(@PathVariable Long userId) {
-        Set<User> following = followerService.getFollowing(userId);
+    public ResponseEntity<List<UserSummaryDto>> getFollowing(@PathVariable Long userId) {
+        List<UserSummaryDto> following = followerService.getFollowing(userId);
         return ResponseEntity.ok(following);
     }
 
     @GetMapping("/{userId}/followers")
-    public ResponseEntity<Set<User>> getFollowers(@PathVariable Long userId) {
-        Set<User> followers = followerService.getFollowers(userId);
+    public ResponseEntity<List<UserSummaryDto>> getFollowers(@PathVariable Long userId) {
+        List<UserSummaryDto> followers = followerService.getFollowers(userId);
         return ResponseEntity.ok(followers);
     }
 
@@ -108,21 +112,29 @@ public class FollowerController {
     }
 
     @GetMapping("/check")
-    public ResponseEntity<Boolean> checkFollowing(
+    public CompletableFuture<ResponseEntity<Boolean>> checkFollowing(
             @RequestParam Long followerId,
             @RequestParam Long followedId) {
-        boolean isFollowing = followerService.isFollowing(followerId, followedId);
-        return ResponseEntity.ok(isFollowing);
+        return followerService.isFollowingAsync(followerId, followedId).thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/{userId}/recommendations")
-    public ResponseEntity<List<User>> getRecommendations(
+    public ResponseEntity<List<UserSummaryDto>> getRecommendations(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "10") int limit) {
-        List<User> recommendations = followerService.getRecommendations(userId, limit);
+        List<UserSummaryDto> recommendations = followerService.getRecommendations(userId, limit);
         return ResponseEntity.ok(recommendations);
     }
 
+    // Rangirane preporuke sa kursorom; nextCursor iz odgovora se salje kao cursor za sledecu stranicu
+    @GetMapping("/{userId}/recommendations/page")
+    public ResponseEntity<RecommendationPageDto> getRecommendationPage(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(followerService.getRecommendationPage(userId, size, cursor));
+    }
+
     @PostMapping("/sync-user")
     public ResponseEntity<FollowResponse> syncUser(
             @RequestParam Long userId,
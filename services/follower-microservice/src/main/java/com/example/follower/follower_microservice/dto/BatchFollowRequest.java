@@ -0,0 +1,24 @@
+package com.example.follower.follower_microservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchFollowRequest {
+    @NotEmpty(message = "At least one edge is required")
+    private List<FollowRequest> edges;
+
+    public BatchFollowRequest() {}
+
+    public BatchFollowRequest(List<FollowRequest> edges) {
+        this.edges = edges;
+    }
+
+    public List<FollowRequest> getEdges() {
+        return edges;
+    }
+
+    public void setEdges(List<FollowRequest> edges) {
+        this.edges = edges;
+    }
+}
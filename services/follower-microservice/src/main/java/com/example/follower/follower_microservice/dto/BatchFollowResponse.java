@@ -0,0 +1,58 @@
+package com.example.follower.follower_microservice.dto;
+
+import java.util.List;
+
+// Rezultati su u istom redosledu kao ivice u zahtevu
+public class BatchFollowResponse {
+    private int applied;
+    private int unchanged;
+    private int rejected;
+    private List<EdgeResultDto> results;
+
+    public BatchFollowResponse() {}
+
+    public BatchFollowResponse(List<EdgeResultDto> results) {
+        this.results = results;
+        for (EdgeResultDto result : results) {
+            if (result.getStatus().applied()) {
+                applied++;
+            } else if (result.getStatus().rejected()) {
+                rejected++;
+            } else {
+                unchanged++;
+            }
+        }
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<EdgeResultDto> getResults() {
+        return results;
+    }
+
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public void setResults(List<EdgeResultDto> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.follower.follower_microservice.dto;
+
+// Ishod jedne FOLLOWS ivice iz batch poziva
+public class EdgeResultDto {
+
+    public enum Status {
+        CREATED,
+        ALREADY_FOLLOWING,
+        REMOVED,
+        NOT_FOLLOWING,
+        INVALID,
+        FAILED;
+
+        // Ivica je upisana ili obrisana
+        public boolean applied() {
+            return this == CREATED || this == REMOVED;
+        }
+
+        // Ivica je odbijena ili nije mogla da se upise
+        public boolean rejected() {
+            return this == INVALID || this == FAILED;
+        }
+    }
+
+    private Long followerId;
+    private Long followedId;
+    private Status status;
+
+    public EdgeResultDto() {}
+
+    public EdgeResultDto(Long followerId, Long followedId, Status status) {
+        this.followerId = followerId;
+        this.followedId = followedId;
+        this.status = status;
+    }
+
+    public Long getFollowerId() {
+        return followerId;
+    }
+
+    public Long getFollowedId() {
+        return followedId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setFollowerId(Long followerId) {
+        this.followerId = followerId;
+    }
+
+    public void setFollowedId(Long followedId) {
+        this.followedId = followedId;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
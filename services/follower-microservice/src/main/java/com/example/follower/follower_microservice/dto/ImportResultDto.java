@@ -0,0 +1,70 @@
+package com.example.follower.follower_microservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Sazetak CSV uvoza; za milione ivica ne vracamo rezultat po ivici, samo prvih par gresaka
+public class ImportResultDto {
+    public static final int MAX_ERRORS = 100;
+
+    private long lines;
+    private long created;
+    private long existing;
+    private long rejected;
+    private List<String> errors = new ArrayList<>();
+
+    public void addCreated(long count) {
+        created += count;
+    }
+
+    public void addExisting(long count) {
+        existing += count;
+    }
+
+    public void reject(long line, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("line " + line + ": " + reason);
+        }
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getExisting() {
+        return existing;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setLines(long lines) {
+        this.lines = lines;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public void setExisting(long existing) {
+        this.existing = existing;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
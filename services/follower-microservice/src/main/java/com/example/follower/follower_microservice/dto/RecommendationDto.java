@@ -0,0 +1,106 @@
+package com.example.follower.follower_microservice.dto;
+
+// Preporuceni korisnik; mutualCount = koliko korisnika koje pratim prati njega
+public class RecommendationDto {
+    private Long userId;
+    private String username;
+    private long followersCount;
+    private long followingCount;
+    private long mutualCount;
+
+    public RecommendationDto() {}
+
+    public RecommendationDto(Long userId, String username, long followersCount, long followingCount, long mutualCount) {
+        this.userId = userId;
+        this.username = username;
+        this.followersCount = followersCount;
+        this.followingCount = followingCount;
+        this.mutualCount = mutualCount;
+    }
+
+    // Builder pattern bez Lombok-a
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Long userId;
+        private String username;
+        private long followersCount;
+        private long followingCount;
+        private long mutualCount;
+
+        public Builder userId(Long userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        public Builder username(String username) {
+            this.username = username;
+            return this;
+        }
+
+        public Builder followersCount(long followersCount) {
+            this.followersCount = followersCount;
+            return this;
+        }
+
+        public Builder followingCount(long followingCount) {
+            this.followingCount = followingCount;
+            return this;
+        }
+
+        public Builder mutualCount(long mutualCount) {
+            this.mutualCount = mutualCount;
+            return this;
+        }
+
+        public RecommendationDto build() {
+            return new RecommendationDto(userId, username, followersCount, followingCount, mutualCount);
+        }
+    }
+
+    public UserSummaryDto toSummary() {
+        return new UserSummaryDto(userId, username, followersCount, followingCount);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getFollowersCount() {
+        return followersCount;
+    }
+
+    public long getFollowingCount() {
+        return followingCount;
+    }
+
+    public long getMutualCount() {
+        return mutualCount;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public void setFollowersCount(long followersCount) {
+        this.followersCount = followersCount;
+    }
+
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
+    }
+
+    public void setMutualCount(long mutualCount) {
+        this.mutualCount = mutualCount;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.follower.follower_microservice.dto;
+
+import java.util.List;
+
+// Stranica preporuka; nextCursor je null na poslednjoj stranici
+public class RecommendationPageDto {
+    private List<RecommendationDto> items;
+    private String nextCursor;
+    // false dok periodicni posao jos nije izracunao preporuke za korisnika (racunate su uzivo)
+    private boolean precomputed;
+
+    public RecommendationPageDto() {}
+
+    public RecommendationPageDto(List<RecommendationDto> items, String nextCursor, boolean precomputed) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.precomputed = precomputed;
+    }
+
+    public List<RecommendationDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isPrecomputed() {
+        return precomputed;
+    }
+
+    public void setItems(List<RecommendationDto> items) {
+        this.items = items;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public void setPrecomputed(boolean precomputed) {
+        this.precomputed = precomputed;
+    }
+}
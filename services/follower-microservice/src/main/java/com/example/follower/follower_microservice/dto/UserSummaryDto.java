@@ -0,0 +1,86 @@
+package com.example.follower.follower_microservice.dto;
+
+// Korisnik sa brojem pratilaca/pracenih, bez ucitavanja susednih cvorova
+public class UserSummaryDto {
+    private Long userId;
+    private String username;
+    private long followersCount;
+    private long followingCount;
+
+    public UserSummaryDto() {}
+
+    public UserSummaryDto(Long userId, String username, long followersCount, long followingCount) {
+        this.userId = userId;
+        this.username = username;
+        this.followersCount = followersCount;
+        this.followingCount = followingCount;
+    }
+
+    // Builder pattern bez Lombok-a
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Long userId;
+        private String username;
+        private long followersCount;
+        private long followingCount;
+
+        public Builder userId(Long userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        public Builder username(String username) {
+            this.username = username;
+            return this;
+        }
+
+        public Builder followersCount(long followersCount) {
+            this.followersCount = followersCount;
+            return this;
+        }
+
+        public Builder followingCount(long followingCount) {
+            this.followingCount = followingCount;
+            return this;
+        }
+
+        public UserSummaryDto build() {
+            return new UserSummaryDto(userId, username, followersCount, followingCount);
+        }
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getFollowersCount() {
+        return followersCount;
+    }
+
+    public long getFollowingCount() {
+        return followingCount;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public void setFollowersCount(long followersCount) {
+        this.followersCount = followersCount;
+    }
+
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.follower.follower_microservice.embedded;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed sparse row adjacency over dense node indexes, both directions:
+ * the out-neighbours of n are outTargets[outOffsets[n] .. outOffsets[n + 1]), sorted, and
+ * likewise for in-neighbours. Four int arrays, about 8 bytes per edge plus 8 per node;
+ * a membership check is a binary search inside one row.
+ */
+final class CsrGraph {
+
+    static final CsrGraph EMPTY = new CsrGraph(0, new int[1], new int[0], new int[1], new int[0]);
+
+    final int nodeCount;
+    final int[] outOffsets;
+    final int[] outTargets;
+    final int[] inOffsets;
+    final int[] inSources;
+
+    CsrGraph(int nodeCount, int[] outOffsets, int[] outTargets, int[] inOffsets, int[] inSources) {
+        this.nodeCount = nodeCount;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+    }
+
+    // Ivice (src[i], dst[i]) za i < edgeCount; duplikati nisu dozvoljeni
+    static CsrGraph build(int nodeCount, int[] src, int[] dst, int edgeCount) {
+        int[] outOffsets = new int[nodeCount + 1];
+        int[] inOffsets = new int[nodeCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            outOffsets[src[i] + 1]++;
+            inOffsets[dst[i] + 1]++;
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            outOffsets[n + 1] += outOffsets[n];
+            inOffsets[n + 1] += inOffsets[n];
+        }
+        int[] outTargets = new int[edgeCount];
+        int[] inSources = new int[edgeCount];
+        int[] outFill = Arrays.copyOf(outOffsets, nodeCount);
+        int[] inFill = Arrays.copyOf(inOffsets, nodeCount);
+        for (int i = 0; i < edgeCount; i++) {
+            outTargets[outFill[src[i]]++] = dst[i];
+            inSources[inFill[dst[i]]++] = src[i];
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            Arrays.sort(outTargets, outOffsets[n], outOffsets[n + 1]);
+            Arrays.sort(inSources, inOffsets[n], inOffsets[n + 1]);
+        }
+        return new CsrGraph(nodeCount, outOffsets, outTargets, inOffsets, inSources);
+    }
+
+    int edgeCount() {
+        return outTargets.length;
+    }
+
+    int outDegree(int node) {
+        return node < nodeCount ? outOffsets[node + 1] - outOffsets[node] : 0;
+    }
+
+    int inDegree(int node) {
+        return node < nodeCount ? inOffsets[node + 1] - inOffsets[node] : 0;
+    }
+
+    boolean hasEdge(int from, int to) {
+        return from < nodeCount
+                && Arrays.binarySearch(outTargets, outOffsets[from], outOffsets[from + 1], to) >= 0;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.follower.follower_microservice.embedded;
+
+import com.example.follower.follower_microservice.dto.BatchFollowResponse;
+import com.example.follower.follower_microservice.dto.EdgeResultDto;
+import com.example.follower.follower_microservice.dto.EdgeResultDto.Status;
+import com.example.follower.follower_microservice.dto.FollowRequest;
+import com.example.follower.follower_microservice.dto.ImportResultDto;
+import com.example.follower.follower_microservice.service.FollowBatchService;
+import com.example.follower.follower_microservice.service.FollowCsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FollowBatchService over the in-process graph, with the statuses of FollowBatchServiceImpl.
+ * Each chunk is one log append (one fsync), so a failing chunk leaves the earlier ones applied.
+ */
+@Service
+@Profile("embedded-graph")
+public class EmbeddedFollowBatchService implements FollowBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedFollowBatchService.class);
+
+    private final EmbeddedFollowGraph graph;
+    private final int chunkSize;
+    private final int maxEdges;
+    private final int importChunkSize;
+
+    public EmbeddedFollowBatchService(EmbeddedFollowGraph graph,
+                                      @Value("${follower.batch.chunk-size:1000}") int chunkSize,
+                                      @Value("${follower.batch.max-edges:10000}") int maxEdges,
+                                      @Value("${follower.import.chunk-size:10000}") int importChunkSize) {
+        this.graph = graph;
+        this.chunkSize = chunkSize;
+        this.maxEdges = maxEdges;
+        this.importChunkSize = importChunkSize;
+    }
+
+    @Override
+    public BatchFollowResponse followAll(List<FollowRequest> edges) {
+        return apply(edges, true);
+    }
+
+    @Override
+    public BatchFollowResponse unfollowAll(List<FollowRequest> edges) {
+        return apply(edges, false);
+    }
+
+    private BatchFollowResponse apply(List<FollowRequest> edges, boolean follow) {
+        if (edges.size() > maxEdges) {
+            throw new IllegalArgumentException("At most " + maxEdges + " edges per request");
+        }
+        Status[] statuses = new Status[edges.size()];
+        Map<FollowKey, Integer> firstIndex = new HashMap<>();
+        int[] duplicateOf = new int[edges.size()];
+        Chunk chunk = new Chunk(Math.min(chunkSize, edges.size()));
+
+        for (int i = 0; i < edges.size(); i++) {
+            duplicateOf[i] = -1;
+            FollowRequest edge = edges.get(i);
+            if (edge == null || edge.getFollowerId() == null || edge.getFollowedId() == null
+                    || edge.getFollowerId().equals(edge.getFollowedId())) {
+                statuses[i] = Status.INVALID;
+                continue;
+            }
+            Integer first = firstIndex.putIfAbsent(new FollowKey(edge.getFollowerId(), edge.getFollowedId()), i);
+            if (first != null) {
+                duplicateOf[i] = first;
+                continue;
+            }
+            chunk.add(i, edge.getFollowerId(), edge.getFollowedId());
+            if (chunk.size == chunkSize) {
+                flush(chunk, follow, statuses);
+            }
+        }
+        if (chunk.size > 0) {
+            flush(chunk, follow, statuses);
+        }
+
+        Status unchanged = follow ? Status.ALREADY_FOLLOWING : Status.NOT_FOLLOWING;
+        List<EdgeResultDto> results = new ArrayList<>(edges.size());
+        for (int i = 0; i < edges.size(); i++) {
+            if (duplicateOf[i] >= 0) {
+                Status original = statuses[duplicateOf[i]];
+                statuses[i] = original == Status.FAILED ? Status.FAILED : unchanged;
+            }
+            FollowRequest edge = edges.get(i);
+            results.add(new EdgeResultDto(edge == null ? null : edge.getFollowerId(),
+                    edge == null ? null : edge.getFollowedId(), statuses[i]));
+        }
+        return new BatchFollowResponse(results);
+    }
+
+    private void flush(Chunk chunk, boolean follow, Status[] statuses) {
+        Status applied = follow ? Status.CREATED : Status.REMOVED;
+        Status unchanged = follow ? Status.ALREADY_FOLLOWING : Status.NOT_FOLLOWING;
+        try {
+            boolean[] changed = chunk.apply(follow);
+            for (int i = 0; i < chunk.size; i++) {
+                statuses[chunk.idx[i]] = changed[i] ? applied : unchanged;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Batch {} of {} edges failed: {}", follow ? "follow" : "unfollow", chunk.size, e.toString());
+            for (int i = 0; i < chunk.size; i++) {
+                statuses[chunk.idx[i]] = Status.FAILED;
+            }
+        }
+        chunk.size = 0;
+    }
+
+    // Kao u Neo4j putanji: neuspeo deo prekida uvoz, a ponovni uvoz istog fajla je bezbedan
+    @Override
+    public ImportResultDto importCsv(Reader csv) throws IOException {
+        ImportResultDto result = new ImportResultDto();
+        Chunk chunk = new Chunk(importChunkSize);
+        Set<FollowKey> inChunk = new HashSet<>();
+        FollowCsvReader.read(csv, result, (followerId, followedId) -> {
+            if (!inChunk.add(new FollowKey(followerId, followedId))) {
+                result.addExisting(1);
+                return;
+            }
+            chunk.add(chunk.size, followerId, followedId);
+            if (chunk.size == importChunkSize) {
+                importChunk(chunk, result);
+                inChunk.clear();
+            }
+        });
+        if (chunk.size > 0) {
+            importChunk(chunk, result);
+        }
+        log.info("Imported {} lines: {} created, {} existing, {} rejected",
+                result.getLines(), result.getCreated(), result.getExisting(), result.getRejected());
+        return result;
+    }
+
+    private void importChunk(Chunk chunk, ImportResultDto result) {
+        int created = 0;
+        for (boolean changed : chunk.apply(true)) {
+            if (changed) created++;
+        }
+        result.addCreated(created);
+        result.addExisting(chunk.size - created);
+        chunk.size = 0;
+    }
+
+    // Ivice jednog dela u primitivnim nizovima, kako ih graf prima
+    private final class Chunk {
+        final int[] idx;
+        final long[] followerIds;
+        final long[] followedIds;
+        int size;
+
+        Chunk(int capacity) {
+            idx = new int[capacity];
+            followerIds = new long[capacity];
+            followedIds = new long[capacity];
+        }
+
+        void add(int index, long followerId, long followedId) {
+            idx[size] = index;
+            followerIds[size] = followerId;
+            followedIds[size] = followedId;
+            size++;
+        }
+
+        boolean[] apply(boolean follow) {
+            long[] from = Arrays.copyOf(followerIds, size);
+            long[] to = Arrays.copyOf(followedIds, size);
+            return follow ? graph.followAll(from, to) : graph.unfollowAll(from, to);
+        }
+    }
+
+    private record FollowKey(long followerId, long followedId) {}
+}
@@ -0,0 +1,541 @@
+package com.example.follower.follower_microservice.embedded;
+
+import com.example.follower.follower_microservice.dto.RecommendationDto;
+import com.example.follower.follower_microservice.dto.UserSummaryDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The whole FOLLOWS graph in the JVM heap, for the embedded-graph profile. Users get dense int
+ * indexes (IdMap); edges live in an immutable CSR base plus small per-row add/remove deltas,
+ * which are folded into a new base once compact-after changes have piled up.
+ *
+ * Every write is appended to the log (and forced with log-sync) before it is applied, so an
+ * acknowledged write survives a crash. A periodic snapshot compacts, starts a new log
+ * generation, writes graph.snapshot and drops the older logs; startup loads the snapshot and
+ * replays the logs after it.
+ *
+ * Readers share a read lock, writers and compaction take the write lock. Compaction and the
+ * in-memory part of a snapshot copy the whole graph and stall writes for that long.
+ */
+@Component
+@Profile("embedded-graph")
+public class EmbeddedFollowGraph {
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedFollowGraph.class);
+
+    private final Path dir;
+    private final int compactAfter;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+
+    private IdMap ids;
+    private String[] usernames;
+    private CsrGraph base;
+    private final Map<Integer, SortedInts> addedOut = new HashMap<>();
+    private final Map<Integer, SortedInts> removedOut = new HashMap<>();
+    private final Map<Integer, SortedInts> addedIn = new HashMap<>();
+    private final Map<Integer, SortedInts> removedIn = new HashMap<>();
+    private long edgeCount;
+    private long pendingChanges;
+    private boolean changedSinceSnapshot;
+    private boolean closed;
+    private final GraphLog writeLog;
+
+    public EmbeddedFollowGraph(@Value("${follower.embedded-graph.dir:./data/follower-graph}") String dir,
+                               @Value("${follower.embedded-graph.log-sync:true}") boolean logSync,
+                               @Value("${follower.embedded-graph.compact-after:1000000}") int compactAfter) {
+        this.dir = Path.of(dir);
+        this.compactAfter = compactAfter;
+        long replayedRecords;
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(this.dir);
+            GraphSnapshots.Snapshot snapshot = GraphSnapshots.read(this.dir);
+            long fromSeq = 0;
+            if (snapshot != null) {
+                ids = IdMap.of(snapshot.ids(), snapshot.ids().length);
+                usernames = snapshot.usernames();
+                base = snapshot.graph();
+                edgeCount = base.edgeCount();
+                fromSeq = snapshot.logSeq();
+            } else {
+                ids = new IdMap(1024);
+                usernames = new String[1024];
+                base = CsrGraph.EMPTY;
+            }
+            long[] replayed = new long[1];
+            long lastSeq = GraphLog.replay(this.dir, fromSeq, new GraphLog.Visitor() {
+                @Override
+                public void edge(byte op, long followerId, long followedId) {
+                    replayed[0]++;
+                    if (op == GraphLog.FOLLOW) {
+                        applyFollow(followerId, followedId);
+                    } else {
+                        applyUnfollow(followerId, followedId);
+                    }
+                }
+
+                @Override
+                public void user(long userId, String username) {
+                    replayed[0]++;
+                    applyUser(userId, username);
+                }
+            });
+            changedSinceSnapshot = replayed[0] > 0;
+            replayedRecords = replayed[0];
+            if (pendingChanges >= compactAfter) {
+                compact();
+            }
+            writeLog = new GraphLog(this.dir, lastSeq + 1, logSync);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load the embedded follow graph from " + this.dir, e);
+        }
+        log.info("Embedded follow graph loaded from {}: {} users, {} follows ({} log records replayed) in {} ms",
+                this.dir, ids.size(), edgeCount, replayedRecords, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // true kada je ivica dodata, false kada je vec postojala
+    boolean follow(long followerId, long followedId) {
+        return followAll(new long[]{followerId}, new long[]{followedId})[0];
+    }
+
+    boolean unfollow(long followerId, long followedId) {
+        return unfollowAll(new long[]{followerId}, new long[]{followedId})[0];
+    }
+
+    // Parovi moraju biti medjusobno razliciti; jedan upis u log (i jedan fsync) za ceo niz
+    boolean[] followAll(long[] followerIds, long[] followedIds) {
+        return write(GraphLog.FOLLOW, followerIds, followedIds);
+    }
+
+    boolean[] unfollowAll(long[] followerIds, long[] followedIds) {
+        return write(GraphLog.UNFOLLOW, followerIds, followedIds);
+    }
+
+    // Kao save() u Neo4j putanji: null ne menja ime postojeceg korisnika; vraca vazece ime
+    String upsertUser(long userId, String username) {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            writeLog.stageUser(userId, username);
+            commitLog();
+            applyUser(userId, username);
+            return usernames[ids.get(userId)];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean exists(long userId) {
+        lock.readLock().lock();
+        try {
+            return ids.get(userId) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean isFollowing(long followerId, long followedId) {
+        lock.readLock().lock();
+        try {
+            int from = ids.get(followerId);
+            int to = ids.get(followedId);
+            return from >= 0 && to >= 0 && hasEdge(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sortirano po userId
+    long[] followingIds(long userId) {
+        lock.readLock().lock();
+        try {
+            int node = ids.get(userId);
+            if (node < 0) return new long[0];
+            long[] result = toUserIds(row(node, true), Integer.MAX_VALUE);
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // limit 0 = svi
+    long[] followerIds(long userId, int limit) {
+        lock.readLock().lock();
+        try {
+            int node = ids.get(userId);
+            if (node < 0) return new long[0];
+            return toUserIds(row(node, false), limit > 0 ? limit : Integer.MAX_VALUE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<UserSummaryDto> followingSummaries(long userId) {
+        return summaries(userId, true);
+    }
+
+    List<UserSummaryDto> followerSummaries(long userId) {
+        return summaries(userId, false);
+    }
+
+    /**
+     * Same scoring as the live Cypher query: mutual count over the first hop1Cap followees
+     * and, per followee, the first hop2Cap candidates I do not follow yet; ordered by
+     * (score desc, userId asc), starting after the given position.
+     */
+    List<RecommendationDto> recommendations(long userId, int hop1Cap, int hop2Cap,
+                                            long afterScore, long afterUserId, int limit) {
+        lock.readLock().lock();
+        try {
+            int me = ids.get(userId);
+            if (me < 0) return List.of();
+            int[] following = row(me, true);
+            Map<Integer, Integer> scores = new HashMap<>();
+            for (int i = 0; i < Math.min(hop1Cap, following.length); i++) {
+                int taken = 0;
+                for (int candidate : row(following[i], true)) {
+                    if (taken == hop2Cap) break;
+                    if (candidate == me || hasEdge(me, candidate)) continue;
+                    scores.merge(candidate, 1, Integer::sum);
+                    taken++;
+                }
+            }
+            List<long[]> ranked = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+                long score = entry.getValue();
+                long candidateId = ids.idOf(entry.getKey());
+                if (score < afterScore || (score == afterScore && candidateId > afterUserId)) {
+                    ranked.add(new long[]{score, candidateId, entry.getKey()});
+                }
+            }
+            ranked.sort(Comparator.<long[]>comparingLong(r -> -r[0]).thenComparingLong(r -> r[1]));
+            List<RecommendationDto> page = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (long[] r : ranked.subList(0, Math.min(limit, ranked.size()))) {
+                int node = (int) r[2];
+                page.add(new RecommendationDto(r[1], usernames[node], degree(node, false), degree(node, true), r[0]));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long userCount() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long followCount() {
+        lock.readLock().lock();
+        try {
+            return edgeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Izmene od poslednjeg sazimanja (velicina delte)
+    public long pendingChanges() {
+        lock.readLock().lock();
+        try {
+            return pendingChanges;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${follower.embedded-graph.snapshot-interval:PT10M}",
+            fixedDelayString = "${follower.embedded-graph.snapshot-interval:PT10M}")
+    public void scheduledSnapshot() {
+        snapshot();
+    }
+
+    // Vraca false kada nije bilo izmena od prethodnog snapshot-a ili je snapshot vec u toku
+    public boolean snapshot() {
+        if (!snapshotting.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            GraphSnapshots.Snapshot snapshot;
+            lock.writeLock().lock();
+            try {
+                if (closed || !changedSinceSnapshot) {
+                    return false;
+                }
+                compact();
+                long seq = writeLog.roll();
+                // Prvih n id-jeva se vise ne menja; imena se kopiraju jer upsertUser menja niz
+                snapshot = new GraphSnapshots.Snapshot(seq, ids.ids(),
+                        Arrays.copyOf(usernames, ids.size()), base);
+                changedSinceSnapshot = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long started = System.nanoTime();
+            try {
+                GraphSnapshots.write(dir, snapshot);
+            } catch (IOException e) {
+                markChanged();
+                log.warn("Embedded graph snapshot failed, the logs are kept: {}", e.toString());
+                return false;
+            }
+            try {
+                writeLog.deleteBefore(snapshot.logSeq());
+            } catch (IOException e) {
+                log.warn("Old embedded graph logs could not be deleted: {}", e.toString());
+            }
+            log.info("Embedded graph snapshot of {} users, {} follows written in {} ms",
+                    snapshot.graph().nodeCount, snapshot.graph().edgeCount(), (System.nanoTime() - started) / 1_000_000);
+            return true;
+        } catch (IOException e) {
+            markChanged();
+            log.warn("Embedded graph log could not be rolled, snapshot skipped: {}", e.toString());
+            return false;
+        } finally {
+            snapshotting.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        snapshot();
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                closed = true;
+                writeLog.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean[] write(byte op, long[] followerIds, long[] followedIds) {
+        boolean follow = op == GraphLog.FOLLOW;
+        boolean[] changed = new boolean[followerIds.length];
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            // Prvo log, pa memorija: ivica koja nije u logu nikad nije ni vidljiva
+            for (int i = 0; i < changed.length; i++) {
+                int from = ids.get(followerIds[i]);
+                int to = ids.get(followedIds[i]);
+                boolean exists = from >= 0 && to >= 0 && hasEdge(from, to);
+                if (exists != follow) {
+                    changed[i] = true;
+                    writeLog.stageEdge(op, followerIds[i], followedIds[i]);
+                }
+            }
+            if (!writeLog.hasStaged()) {
+                return changed;
+            }
+            commitLog();
+            for (int i = 0; i < changed.length; i++) {
+                if (!changed[i]) continue;
+                if (follow) {
+                    applyFollow(followerIds[i], followedIds[i]);
+                } else {
+                    applyUnfollow(followerIds[i], followedIds[i]);
+                }
+            }
+            if (pendingChanges >= compactAfter) {
+                compact();
+            }
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void commitLog() {
+        try {
+            writeLog.commit();
+            changedSinceSnapshot = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Embedded graph log write failed", e);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Embedded follow graph is closed");
+        }
+    }
+
+    private void markChanged() {
+        lock.writeLock().lock();
+        try {
+            changedSinceSnapshot = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Primena izmena; iste metode koristi i replay, pa su idempotentne
+
+    private void applyFollow(long followerId, long followedId) {
+        int from = node(followerId);
+        int to = node(followedId);
+        if (hasEdge(from, to)) return;
+        if (!remove(removedOut, from, to)) add(addedOut, from, to);
+        if (!remove(removedIn, to, from)) add(addedIn, to, from);
+        edgeCount++;
+        pendingChanges++;
+    }
+
+    private void applyUnfollow(long followerId, long followedId) {
+        int from = ids.get(followerId);
+        int to = ids.get(followedId);
+        if (from < 0 || to < 0 || !hasEdge(from, to)) return;
+        if (!remove(addedOut, from, to)) add(removedOut, from, to);
+        if (!remove(addedIn, to, from)) add(removedIn, to, from);
+        edgeCount--;
+        pendingChanges++;
+    }
+
+    private void applyUser(long userId, String username) {
+        boolean created = ids.get(userId) < 0;
+        int node = node(userId);
+        if (created || username != null) {
+            usernames[node] = username;
+        }
+    }
+
+    // Indeks korisnika; novi korisnik dobija podrazumevano ime kao MERGE u Neo4j putanji
+    private int node(long userId) {
+        int before = ids.size();
+        int node = ids.getOrAdd(userId);
+        if (node == before) {
+            if (node == usernames.length) {
+                usernames = Arrays.copyOf(usernames, Math.max(16, usernames.length * 2));
+            }
+            usernames[node] = "User" + userId;
+        }
+        return node;
+    }
+
+    private boolean hasEdge(int from, int to) {
+        SortedInts removed = removedOut.get(from);
+        if (removed != null && removed.contains(to)) return false;
+        SortedInts added = addedOut.get(from);
+        if (added != null && added.contains(to)) return true;
+        return base.hasEdge(from, to);
+    }
+
+    // Sortirani susedi cvora: red iz baze bez obrisanih, spojen sa dodatim
+    private int[] row(int node, boolean out) {
+        int[] offsets = out ? base.outOffsets : base.inOffsets;
+        int[] targets = out ? base.outTargets : base.inSources;
+        SortedInts added = (out ? addedOut : addedIn).get(node);
+        SortedInts removed = (out ? removedOut : removedIn).get(node);
+        int start = node < base.nodeCount ? offsets[node] : 0;
+        int end = node < base.nodeCount ? offsets[node + 1] : 0;
+        if (added == null && removed == null) {
+            return Arrays.copyOfRange(targets, start, end);
+        }
+        int[] row = new int[end - start + (added == null ? 0 : added.size())];
+        int n = 0;
+        int a = 0;
+        for (int i = start; i < end; i++) {
+            int target = targets[i];
+            if (removed != null && removed.contains(target)) continue;
+            while (added != null && a < added.size() && added.get(a) < target) {
+                row[n++] = added.get(a++);
+            }
+            row[n++] = target;
+        }
+        while (added != null && a < added.size()) {
+            row[n++] = added.get(a++);
+        }
+        return n == row.length ? row : Arrays.copyOf(row, n);
+    }
+
+    private long degree(int node, boolean out) {
+        SortedInts added = (out ? addedOut : addedIn).get(node);
+        SortedInts removed = (out ? removedOut : removedIn).get(node);
+        return (out ? base.outDegree(node) : base.inDegree(node))
+                + (added == null ? 0 : added.size()) - (removed == null ? 0 : removed.size());
+    }
+
+    private List<UserSummaryDto> summaries(long userId, boolean out) {
+        lock.readLock().lock();
+        try {
+            int node = ids.get(userId);
+            if (node < 0) return List.of();
+            int[] neighbours = row(node, out);
+            List<UserSummaryDto> result = new ArrayList<>(neighbours.length);
+            for (int neighbour : neighbours) {
+                result.add(new UserSummaryDto(ids.idOf(neighbour), usernames[neighbour],
+                        degree(neighbour, false), degree(neighbour, true)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] toUserIds(int[] nodes, int limit) {
+        long[] result = new long[Math.min(limit, nodes.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.idOf(nodes[i]);
+        }
+        return result;
+    }
+
+    // Spaja deltu u novu CSR bazu
+    private void compact() {
+        if (pendingChanges == 0 && base.nodeCount == ids.size()) return;
+        int nodes = ids.size();
+        int[] src = new int[Math.toIntExact(edgeCount)];
+        int[] dst = new int[src.length];
+        int e = 0;
+        for (int node = 0; node < nodes; node++) {
+            for (int target : row(node, true)) {
+                src[e] = node;
+                dst[e++] = target;
+            }
+        }
+        base = CsrGraph.build(nodes, src, dst, e);
+        addedOut.clear();
+        removedOut.clear();
+        addedIn.clear();
+        removedIn.clear();
+        pendingChanges = 0;
+    }
+
+    private static void add(Map<Integer, SortedInts> delta, int node, int neighbour) {
+        delta.computeIfAbsent(node, n -> new SortedInts()).add(neighbour);
+    }
+
+    private static boolean remove(Map<Integer, SortedInts> delta, int node, int neighbour) {
+        SortedInts values = delta.get(node);
+        if (values == null || !values.remove(neighbour)) return false;
+        if (values.size() == 0) delta.remove(node);
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.follower.follower_microservice.embedded;
+
+import com.example.follower.follower_microservice.repository.FollowIdCursors;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+// gRPC streamovi ID-jeva iz grafa u memoriji; niz je kopija, pa ga upisi ne menjaju tokom streama
+@Component
+@Profile("embedded-graph")
+public class EmbeddedFollowIdCursors implements FollowIdCursors {
+
+    private final EmbeddedFollowGraph graph;
+
+    public EmbeddedFollowIdCursors(EmbeddedFollowGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public IdCursor followerIds(long userId, int limit) {
+        return IdCursor.of(graph.followerIds(userId, limit));
+    }
+
+    @Override
+    public IdCursor followingIds(long userId, int limit) {
+        long[] ids = graph.followingIds(userId);
+        return IdCursor.of(limit > 0 && limit < ids.length ? Arrays.copyOf(ids, limit) : ids);
+    }
+}
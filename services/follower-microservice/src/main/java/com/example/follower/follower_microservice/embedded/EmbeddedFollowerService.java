@@ -0,0 +1,178 @@
+package com.example.follower.follower_microservice.embedded;
+
+import com.example.follower.follower_microservice.dto.RecommendationDto;
+import com.example.follower.follower_microservice.dto.RecommendationPageDto;
+import com.example.follower.follower_microservice.dto.UserFollowersDto;
+import com.example.follower.follower_microservice.dto.UserSummaryDto;
+import com.example.follower.follower_microservice.entity.User;
+import com.example.follower.follower_microservice.service.FollowerService;
+import com.example.follower.follower_microservice.service.RecommendationCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * FollowerService over the in-process graph; same results and errors as FollowerServiceImpl.
+ * Reads never block on I/O, so the *Async methods return completed futures. Recommendations
+ * are always computed live (precomputed=false); there is no refresh job in this mode.
+ */
+@Service
+@Profile("embedded-graph")
+public class EmbeddedFollowerService implements FollowerService {
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedFollowerService.class);
+
+    private final EmbeddedFollowGraph graph;
+    private final int hop1Cap;
+    private final int hop2Cap;
+    private final int maxRecommendationPageSize;
+
+    public EmbeddedFollowerService(EmbeddedFollowGraph graph,
+                                   @Value("${follower.recommendations.hop1-cap:500}") int hop1Cap,
+                                   @Value("${follower.recommendations.hop2-cap:200}") int hop2Cap,
+                                   @Value("${follower.recommendations.max-page-size:100}") int maxRecommendationPageSize) {
+        this.graph = graph;
+        this.hop1Cap = hop1Cap;
+        this.hop2Cap = hop2Cap;
+        this.maxRecommendationPageSize = maxRecommendationPageSize;
+    }
+
+    @Override
+    public boolean followUser(Long followerId, Long followedId) {
+        if (followerId.equals(followedId)) {
+            throw new IllegalArgumentException("User cannot follow themselves");
+        }
+        if (!graph.follow(followerId, followedId)) {
+            throw new IllegalStateException("User already follows the target user");
+        }
+        log.debug("User {} now follows user {}", followerId, followedId);
+        return true;
+    }
+
+    @Override
+    public boolean unfollowUser(Long followerId, Long followedId) {
+        if (followerId.equals(followedId) || !graph.unfollow(followerId, followedId)) {
+            return false;
+        }
+        log.debug("User {} unfollowed user {}", followerId, followedId);
+        return true;
+    }
+
+    @Override
+    public List<Long> getFollowingIds(Long userId) {
+        return boxed(graph.followingIds(userId));
+    }
+
+    @Override
+    public List<Long> getFollowerIds(Long userId) {
+        return getFollowerIds(userId, 0);
+    }
+
+    @Override
+    public List<Long> getFollowerIds(Long userId, int limit) {
+        return boxed(graph.followerIds(userId, limit));
+    }
+
+    @Override
+    public List<UserSummaryDto> getFollowing(Long userId) {
+        return graph.followingSummaries(userId);
+    }
+
+    @Override
+    public List<UserSummaryDto> getFollowers(Long userId) {
+        return graph.followerSummaries(userId);
+    }
+
+    @Override
+    public boolean isFollowing(Long followerId, Long followedId) {
+        return graph.isFollowing(followerId, followedId);
+    }
+
+    @Override
+    public List<Long> getFollowedAmong(Long followerId, List<Long> candidateIds) {
+        if (candidateIds == null || candidateIds.isEmpty()) {
+            return List.of();
+        }
+        long[] following = graph.followingIds(followerId);
+        List<Long> followed = new ArrayList<>();
+        for (Long candidate : candidateIds) {
+            if (candidate != null && Arrays.binarySearch(following, candidate) >= 0) {
+                followed.add(candidate);
+            }
+        }
+        return followed;
+    }
+
+    @Override
+    public CompletableFuture<List<Long>> getFollowingIdsAsync(Long userId) {
+        return CompletableFuture.completedFuture(getFollowingIds(userId));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isFollowingAsync(Long followerId, Long followedId) {
+        return CompletableFuture.completedFuture(isFollowing(followerId, followedId));
+    }
+
+    @Override
+    public CompletableFuture<List<Long>> getFollowedAmongAsync(Long followerId, List<Long> candidateIds) {
+        return CompletableFuture.completedFuture(getFollowedAmong(followerId, candidateIds));
+    }
+
+    @Override
+    public UserFollowersDto getUserFollowInfo(Long userId) {
+        List<Long> followingIds = getFollowingIds(userId);
+        List<Long> followerIds = getFollowerIds(userId);
+
+        return UserFollowersDto.builder()
+                .userId(userId)
+                .followingIds(followingIds)
+                .followerIds(followerIds)
+                .followingCount(followingIds.size())
+                .followersCount(followerIds.size())
+                .build();
+    }
+
+    @Override
+    public List<UserSummaryDto> getRecommendations(Long userId, int limit) {
+        return getRecommendationPage(userId, limit, null).getItems().stream()
+                .map(RecommendationDto::toSummary)
+                .toList();
+    }
+
+    @Override
+    public RecommendationPageDto getRecommendationPage(Long userId, int size, String cursor) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        int limit = Math.min(size, maxRecommendationPageSize);
+        RecommendationCursor after = RecommendationCursor.decode(cursor);
+
+        List<RecommendationDto> rows = graph.recommendations(userId, hop1Cap, hop2Cap,
+                after.score(), after.userId(), limit + 1);
+        if (rows.size() <= limit) {
+            return new RecommendationPageDto(rows, null, false);
+        }
+        List<RecommendationDto> items = rows.subList(0, limit);
+        RecommendationDto last = items.get(limit - 1);
+        String next = new RecommendationCursor(last.getMutualCount(), last.getUserId()).encode();
+        return new RecommendationPageDto(items, next, false);
+    }
+
+    @Override
+    public User createOrUpdateUser(Long userId, String username) {
+        return User.builder()
+                .userId(userId)
+                .username(graph.upsertUser(userId, username))
+                .build();
+    }
+
+    private static List<Long> boxed(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.follower.follower_microservice.embedded;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write log of the embedded graph, one file per snapshot generation
+ * (graph-{seq}.log). Records are staged in memory and written by commit(), so a batch costs
+ * one write and at most one fsync. Every record ends with a CRC32; replay stops at the first
+ * torn or corrupt record and cuts the file there.
+ *
+ * Record: op (1 byte), then FOLLOW/UNFOLLOW: followerId, followedId (8 + 8);
+ * USER: userId (8), username length or -1 (4), UTF-8 bytes; then crc (4).
+ */
+final class GraphLog implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(GraphLog.class);
+
+    static final byte FOLLOW = 1;
+    static final byte UNFOLLOW = 2;
+    static final byte USER = 3;
+
+    private static final Pattern FILE_NAME = Pattern.compile("graph-(\\d{12})\\.log");
+
+    interface Visitor {
+        void edge(byte op, long followerId, long followedId);
+
+        void user(long userId, String username);
+    }
+
+    private final Path dir;
+    private final boolean sync;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer staged = ByteBuffer.allocate(64 * 1024);
+    private FileChannel channel;
+    private long seq;
+    private IOException broken;
+
+    GraphLog(Path dir, long seq, boolean sync) throws IOException {
+        this.dir = dir;
+        this.sync = sync;
+        open(seq);
+    }
+
+    long seq() {
+        return seq;
+    }
+
+    void stageEdge(byte op, long followerId, long followedId) {
+        int start = ensure(21);
+        staged.put(op).putLong(followerId).putLong(followedId);
+        seal(start);
+    }
+
+    void stageUser(long userId, String username) {
+        byte[] name = username == null ? null : username.getBytes(StandardCharsets.UTF_8);
+        int start = ensure(17 + (name == null ? 0 : name.length));
+        staged.put(USER).putLong(userId).putInt(name == null ? -1 : name.length);
+        if (name != null) staged.put(name);
+        seal(start);
+    }
+
+    boolean hasStaged() {
+        return staged.position() > 0;
+    }
+
+    // Upisuje pripremljene zapise; kada ne uspe, zapisi su odbaceni, a delimican upis odsecen
+    void commit() throws IOException {
+        if (broken != null) {
+            throw new IOException("Embedded graph log is unusable after a failed write", broken);
+        }
+        long start = channel.size();
+        staged.flip();
+        try {
+            while (staged.hasRemaining()) {
+                channel.write(staged);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            // Iza delimicnog zapisa replay ne bi procitao nista, pa se on mora ukloniti
+            try {
+                channel.truncate(start);
+            } catch (IOException truncateFailed) {
+                e.addSuppressed(truncateFailed);
+                broken = e;
+            }
+            throw e;
+        } finally {
+            staged.clear();
+        }
+    }
+
+    void discard() {
+        staged.clear();
+    }
+
+    // Zatvara tekuci fajl i otvara sledecu generaciju; vraca njen redni broj
+    long roll() throws IOException {
+        FileChannel previous = channel;
+        open(seq + 1);
+        previous.force(false);
+        previous.close();
+        return seq;
+    }
+
+    // Brise generacije starije od seq (vec su u snapshot-u)
+    void deleteBefore(long seq) throws IOException {
+        for (Path file : files(dir)) {
+            if (seqOf(file) < seq) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    // Vraca poslednju procitanu generaciju, ili fromSeq - 1 kada nema fajlova
+    static long replay(Path dir, long fromSeq, Visitor visitor) throws IOException {
+        long last = fromSeq - 1;
+        for (Path file : files(dir)) {
+            long fileSeq = seqOf(file);
+            if (fileSeq < fromSeq) continue;
+            replayFile(file, visitor);
+            last = fileSeq;
+        }
+        return last;
+    }
+
+    static Path fileFor(Path dir, long seq) {
+        return dir.resolve(String.format("graph-%012d.log", seq));
+    }
+
+    private void open(long seq) throws IOException {
+        channel = FileChannel.open(fileFor(dir, seq),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.seq = seq;
+        broken = null;
+    }
+
+    private int ensure(int bytes) {
+        if (staged.remaining() < bytes + 4) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(staged.capacity() * 2, staged.position() + bytes + 4));
+            staged.flip();
+            bigger.put(staged);
+            staged = bigger;
+        }
+        return staged.position();
+    }
+
+    private void seal(int start) {
+        crc.reset();
+        crc.update(staged.array(), start, staged.position() - start);
+        staged.putInt((int) crc.getValue());
+    }
+
+    private static void replayFile(Path file, Visitor visitor) throws IOException {
+        long good = 0;
+        CRC32 crc = new CRC32();
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+            while (true) {
+                int op = in.read();
+                if (op < 0) return;
+                byte[] body;
+                try {
+                    if (op == FOLLOW || op == UNFOLLOW) {
+                        body = new byte[16];
+                        in.readFully(body);
+                    } else if (op == USER) {
+                        byte[] head = new byte[12];
+                        in.readFully(head);
+                        int length = ByteBuffer.wrap(head, 8, 4).getInt();
+                        if (length < -1 || length > 1 << 20) break;
+                        body = new byte[12 + Math.max(0, length)];
+                        System.arraycopy(head, 0, body, 0, 12);
+                        in.readFully(body, 12, body.length - 12);
+                    } else {
+                        break;
+                    }
+                    int expected = in.readInt();
+                    crc.reset();
+                    crc.update(op);
+                    crc.update(body);
+                    if ((int) crc.getValue() != expected) break;
+                } catch (EOFException e) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.wrap(body);
+                if (op == USER) {
+                    long userId = record.getLong();
+                    int length = record.getInt();
+                    visitor.user(userId, length < 0 ? null
+                            : new String(body, 12, length, StandardCharsets.UTF_8));
+                } else {
+                    visitor.edge((byte) op, record.getLong(), record.getLong());
+                }
+                good += 1 + body.length + 4;
+            }
+        }
+        log.warn("Embedded graph log {} has a torn or corrupt record at byte {}, truncating", file, good);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(good);
+        }
+    }
+
+    private static List<Path> files(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.filter(p -> FILE_NAME.matcher(p.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long seqOf(Path file) {
+        Matcher name = FILE_NAME.matcher(file.getFileName().toString());
+        if (!name.matches()) throw new IllegalArgumentException(file.toString());
+        return Long.parseLong(name.group(1));
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.follower.follower_microservice.embedded;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes graph.snapshot: the id map, both CSR directions and the usernames as flat
+ * little-endian arrays, copied through memory-mapped regions of at most 256MB. A snapshot is
+ * written to a temporary file, forced and then atomically renamed, so a crash leaves either
+ * the old or the new one. It records the log generation that follows it; replay starts there.
+ *
+ * Layout: magic, version (int), logSeq (long), nodeCount, edgeCount (int), then
+ * ids (long[n]), outOffsets (int[n+1]), outTargets (int[e]), inOffsets, inSources,
+ * usernames (int length or -1, UTF-8 bytes; per node).
+ */
+final class GraphSnapshots {
+
+    static final String FILE_NAME = "graph.snapshot";
+
+    private static final int MAGIC = 0x46475331; // "FGS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final long REGION_BYTES = 256L << 20;
+
+    record Snapshot(long logSeq, long[] ids, String[] usernames, CsrGraph graph) {}
+
+    private GraphSnapshots() {
+    }
+
+    static void write(Path dir, Snapshot snapshot) throws IOException {
+        CsrGraph graph = snapshot.graph();
+        int nodes = graph.nodeCount;
+        byte[][] names = new byte[nodes][];
+        long nameBytes = 0;
+        for (int n = 0; n < nodes; n++) {
+            String name = snapshot.usernames()[n];
+            names[n] = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+            nameBytes += Integer.BYTES + (names[n] == null ? 0 : names[n].length);
+        }
+        long size = HEADER_BYTES + (long) nodes * Long.BYTES
+                + 2L * (nodes + 1) * Integer.BYTES + 2L * graph.edgeCount() * Integer.BYTES + nameBytes;
+
+        Path tmp = dir.resolve(FILE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Regions out = new Regions(channel, FileChannel.MapMode.READ_WRITE, size);
+            out.buffer(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(snapshot.logSeq())
+                    .putInt(nodes).putInt(graph.edgeCount());
+            for (int n = 0; n < nodes; n++) {
+                out.buffer(Long.BYTES).putLong(snapshot.ids()[n]);
+            }
+            out.putInts(graph.outOffsets, nodes + 1);
+            out.putInts(graph.outTargets, graph.edgeCount());
+            out.putInts(graph.inOffsets, nodes + 1);
+            out.putInts(graph.inSources, graph.edgeCount());
+            for (byte[] name : names) {
+                out.buffer(Integer.BYTES).putInt(name == null ? -1 : name.length);
+                if (name != null) out.putBytes(name);
+            }
+            out.force();
+        }
+        Files.move(tmp, dir.resolve(FILE_NAME), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // null kada snapshot jos ne postoji
+    static Snapshot read(Path dir) throws IOException {
+        Path file = dir.resolve(FILE_NAME);
+        if (!Files.exists(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Regions in = new Regions(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+            ByteBuffer header = in.buffer(HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an embedded graph snapshot: " + file);
+            }
+            long logSeq = header.getLong();
+            int nodes = header.getInt();
+            int edges = header.getInt();
+            long[] ids = new long[nodes];
+            for (int n = 0; n < nodes; n++) {
+                ids[n] = in.buffer(Long.BYTES).getLong();
+            }
+            int[] outOffsets = in.getInts(nodes + 1);
+            int[] outTargets = in.getInts(edges);
+            int[] inOffsets = in.getInts(nodes + 1);
+            int[] inSources = in.getInts(edges);
+            String[] usernames = new String[nodes];
+            for (int n = 0; n < nodes; n++) {
+                int length = in.buffer(Integer.BYTES).getInt();
+                if (length >= 0) {
+                    usernames[n] = new String(in.getBytes(length), StandardCharsets.UTF_8);
+                }
+            }
+            CsrGraph graph = new CsrGraph(nodes, outOffsets, outTargets, inOffsets, inSources);
+            return new Snapshot(logSeq, ids, usernames, graph);
+        }
+    }
+
+    // Fajl se mapira deo po deo; vrednost nikad ne prelazi granicu dva dela
+    private static final class Regions {
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private final long size;
+        private MappedByteBuffer region;
+        private long regionStart;
+
+        Regions(FileChannel channel, FileChannel.MapMode mode, long size) {
+            this.channel = channel;
+            this.mode = mode;
+            this.size = size;
+        }
+
+        // Bafer pozicioniran na sledecu vrednost, sa bar bytes bajtova do kraja dela
+        ByteBuffer buffer(int bytes) throws IOException {
+            if (region == null || region.remaining() < bytes) {
+                long position = region == null ? 0 : regionStart + region.position();
+                if (position + bytes > size) {
+                    throw new IOException("Embedded graph snapshot is truncated");
+                }
+                if (region != null && mode == FileChannel.MapMode.READ_WRITE) {
+                    region.force();
+                }
+                region = channel.map(mode, position, Math.min(REGION_BYTES, size - position));
+                region.order(ByteOrder.LITTLE_ENDIAN);
+                regionStart = position;
+            }
+            return region;
+        }
+
+        void putInts(int[] values, int count) throws IOException {
+            for (int done = 0; done < count; ) {
+                ByteBuffer buffer = buffer(Integer.BYTES);
+                int n = Math.min(count - done, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(values, done, n);
+                buffer.position(buffer.position() + n * Integer.BYTES);
+                done += n;
+            }
+        }
+
+        int[] getInts(int count) throws IOException {
+            int[] values = new int[count];
+            for (int done = 0; done < count; ) {
+                ByteBuffer buffer = buffer(Integer.BYTES);
+                int n = Math.min(count - done, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().get(values, done, n);
+                buffer.position(buffer.position() + n * Integer.BYTES);
+                done += n;
+            }
+            return values;
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            for (int done = 0; done < bytes.length; ) {
+                ByteBuffer buffer = buffer(1);
+                int n = Math.min(bytes.length - done, buffer.remaining());
+                buffer.put(bytes, done, n);
+                done += n;
+            }
+        }
+
+        byte[] getBytes(int count) throws IOException {
+            byte[] bytes = new byte[count];
+            for (int done = 0; done < count; ) {
+                ByteBuffer buffer = buffer(1);
+                int n = Math.min(count - done, buffer.remaining());
+                buffer.get(bytes, done, n);
+                done += n;
+            }
+            return bytes;
+        }
+
+        void force() {
+            if (region != null) region.force();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.follower.follower_microservice.embedded;
+
+import java.util.Arrays;
+
+/**
+ * userId (long) -> dense index (int), assigned in insertion order and never reused, so the
+ * adjacency arrays can be indexed directly. Open addressing over primitive arrays; no boxing,
+ * about 24 bytes per user at the 0.5 load factor. Not thread-safe.
+ */
+final class IdMap {
+
+    private static final int FREE = -1;
+
+    private long[] keys;
+    private int[] values;
+    private long[] ids;
+    private int size;
+
+    IdMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, FREE);
+        ids = new long[Math.max(16, expected)];
+    }
+
+    static IdMap of(long[] ids, int count) {
+        IdMap map = new IdMap(count);
+        for (int i = 0; i < count; i++) {
+            map.getOrAdd(ids[i]);
+        }
+        return map;
+    }
+
+    // -1 kada korisnik ne postoji
+    int get(long id) {
+        int mask = keys.length - 1;
+        for (int slot = mix(id) & mask; ; slot = (slot + 1) & mask) {
+            int value = values[slot];
+            if (value == FREE) return -1;
+            if (keys[slot] == id) return value;
+        }
+    }
+
+    int getOrAdd(long id) {
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        for (; values[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) return values[slot];
+        }
+        int index = size++;
+        keys[slot] = id;
+        values[slot] = index;
+        if (index == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[index] = id;
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+        return index;
+    }
+
+    long idOf(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Prvih size() elemenata se nikad ne menja, pa snapshot moze da ih cita bez zakljucavanja
+    long[] ids() {
+        return ids;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(values, FREE);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == FREE) continue;
+            int slot = mix(oldKeys[i]) & mask;
+            while (values[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.follower.follower_microservice.embedded;
+
+import java.util.Arrays;
+
+// Mali sortirani skup int-ova; delta jednog reda izmedju dva sazimanja grafa
+final class SortedInts {
+
+    private int[] values = new int[4];
+    private int size;
+
+    boolean add(int value) {
+        int at = Arrays.binarySearch(values, 0, size, value);
+        if (at >= 0) return false;
+        at = -at - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(values, at, values, at + 1, size - at);
+        values[at] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove(int value) {
+        int at = Arrays.binarySearch(values, 0, size, value);
+        if (at < 0) return false;
+        System.arraycopy(values, at + 1, values, at, size - at - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    int get(int i) {
+        return values[i];
+    }
+
+    int size() {
+        return size;
+    }
+}
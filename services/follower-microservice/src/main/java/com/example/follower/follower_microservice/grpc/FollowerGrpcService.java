@@ -1,28 +1,58 @@
 package com.example.follower.follower_microservice.grpc;
 
+import com.example.follower.follower_microservice.dto.BatchFollowResponse;
+import com.example.follower.follower_microservice.dto.EdgeResultDto;
+import com.example.follower.follower_microservice.dto.FollowRequest;
+import com.example.follower.follower_microservice.repository.FollowIdCursors;
+import com.example.follower.follower_microservice.repository.FollowIdCursors.IdCursor;
+import com.example.follower.follower_microservice.service.FollowBatchService;
 import com.example.follower.follower_microservice.service.FollowerService;
 import com.example.follower.follower_microservice.grpc.FollowerServiceProto.*;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 @Component
 public class FollowerGrpcService extends FollowerServiceGrpc.FollowerServiceImplBase {
 
     private static final Logger log = LoggerFactory.getLogger(FollowerGrpcService.class);
+    private static final int IDS_PER_CHUNK = 1000;
     private final FollowerService followerService;
+    private final FollowBatchService followBatchService;
+    private final FollowIdCursors followIdCursors;
+    // Otvoren id stream drzi Neo4j sesiju, a time i konekciju iz pool-a, dok klijent ne procita
+    // sve ili ne otkaze; bez ogranicenja spori klijenti mogu da zauzmu ceo pool
+    private final Semaphore idStreams;
+
+    @Value("${follower.batch.chunk-size:1000}")
+    private int batchChunkSize;
 
-    public FollowerGrpcService(FollowerService followerService) {
+    @Value("${follower.batch.max-reported-rejections:10000}")
+    private int maxReportedRejections;
+
+    public FollowerGrpcService(FollowerService followerService, FollowBatchService followBatchService,
+                               FollowIdCursors followIdCursors,
+                               @Value("${follower.grpc.id-streams.max-concurrent:32}") int maxIdStreams) {
         this.followerService = followerService;
+        this.followBatchService = followBatchService;
+        this.followIdCursors = followIdCursors;
+        this.idStreams = new Semaphore(maxIdStreams);
     }
 
     @Override
     public void followUser(FollowUserRequest request, StreamObserver<FollowUserResponse> responseObserver) {
-        log.info("=== GRPC FOLLOW USER START ===");
-        log.info("Received gRPC follow request: followerId={}, followedId={}", 
-                request.getFollowerId(), request.getFollowedId());
-
         try {
             boolean success = followerService.followUser(request.getFollowerId(), request.getFollowedId());
             
@@ -31,14 +61,10 @@ public class FollowerGrpcService extends FollowerServiceGrpc.FollowerServiceImpl
                     .setMessage(success ? "Successfully followed user" : "Failed to follow user")
                     .build();
 
-            log.info("Sending gRPC response: success={}, message={}", 
-                    response.getSuccess(), response.getMessage());
-            
             responseObserver.onNext(response);
             responseObserver.onCompleted();
             
         } catch (IllegalArgumentException e) {
-            log.warn("Invalid follow request: {}", e.getMessage());
             FollowUserResponse response = FollowUserResponse.newBuilder()
                     .setSuccess(false)
                     .setMessage(e.getMessage())
@@ -47,7 +73,6 @@ public class FollowerGrpcService extends FollowerServiceGrpc.FollowerServiceImpl
             responseObserver.onCompleted();
             
         } catch (IllegalStateException e) {
-            log.info("Already following: {}", e.getMessage());
             FollowUserResponse response = FollowUserResponse.newBuilder()
                     .setSuccess(false)
                     .setMessage(e.getMessage())
@@ -59,16 +84,10 @@ public class FollowerGrpcService extends FollowerServiceGrpc.FollowerServiceImpl
             log.error("Unexpected error in followUser", e);
             responseObserver.onError(e);
         }
-        
-        log.info("=== GRPC FOLLOW USER END ===");
     }
 
     @Override
     public void unfollowUser(UnfollowUserRequest request, StreamObserver<UnfollowUserResponse> responseObserver) {
-        log.info("=== GRPC UNFOLLOW USER START ===");
-        log.info("Received gRPC unfollow request: followerId={}, followedId={}", 
-                request.getFollowerId(), request.getFollowedId());
-
         try {
             boolean success = followerService.unfollowUser(request.getFollowerId(), request.getFollowedId());
             
@@ -77,9 +96,6 @@ public class FollowerGrpcService extends FollowerServiceGrpc.FollowerServiceImpl
                     .setMessage(success ? "Successfully unfollowed user" : "Failed to unfollow user")
                     .build();
 
-            log.info("Sending gRPC response: success={}, message={}", 
-                    response.getSuccess(), response.getMessage());
-            
             responseObserver.onNext(response);
             responseObserver.onCompleted();
             
@@ -87,7 +103,227 @@ public class FollowerGrpcService extends FollowerServiceGrpc.FollowerServiceImpl
             log.error("Unexpected error in unfollowUser", e);
             responseObserver.onError(e);
         }
-        
-        log.info("=== GRPC UNFOLLOW USER END ===");
+    }
+
+    @Override
+    public void getFollowerIds(GetFollowerIdsRequest request, StreamObserver<UserIdsChunk> responseObserver) {
+        streamIds(responseObserver, "getFollowerIds",
+                () -> followIdCursors.followerIds(request.getUserId(), request.getLimit()));
+    }
+
+    @Override
+    public void getFollowingIds(GetFollowingIdsRequest request, StreamObserver<UserIdsChunk> responseObserver) {
+        streamIds(responseObserver, "getFollowingIds",
+                () -> followIdCursors.followingIds(request.getUserId(), request.getLimit()));
+    }
+
+    private void streamIds(StreamObserver<UserIdsChunk> responseObserver, String rpc, Supplier<IdCursor> open) {
+        ServerCallStreamObserver<UserIdsChunk> observer = (ServerCallStreamObserver<UserIdsChunk>) responseObserver;
+        if (!idStreams.tryAcquire()) {
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                    .withDescription("Too many concurrent id streams, retry later")
+                    .asRuntimeException());
+            return;
+        }
+        IdCursor cursor;
+        try {
+            cursor = open.get();
+        } catch (Exception e) {
+            idStreams.release();
+            log.error("Unexpected error in {}", rpc, e);
+            responseObserver.onError(e);
+            return;
+        }
+        IdStreamer streamer = new IdStreamer(observer, cursor, rpc, idStreams::release);
+        observer.setOnCancelHandler(streamer::close);
+        observer.setOnReadyHandler(streamer);
+        streamer.run();
+    }
+    @Override
+    public void isFollowingBatch(IsFollowingBatchRequest request, StreamObserver<IsFollowingBatchResponse> responseObserver) {
+        CompletableFuture<List<Long>> followed;
+        try {
+            followed = followerService.getFollowedAmongAsync(request.getFollowerId(), request.getFollowedIdsList());
+        } catch (Exception e) {
+            log.error("Unexpected error in isFollowingBatch", e);
+            responseObserver.onError(e);
+            return;
+        }
+        // Sa follower.reads.async se zavrsava na niti drajvera, handler nit je vec slobodna
+        followed.whenComplete((ids, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                log.error("Unexpected error in isFollowingBatch", cause);
+                responseObserver.onError(cause);
+                return;
+            }
+            responseObserver.onNext(IsFollowingBatchResponse.newBuilder()
+                    .addAllFollowedIds(ids)
+                    .build());
+            responseObserver.onCompleted();
+        });
+    }
+
+    @Override
+    public StreamObserver<FollowUserRequest> followUsers(StreamObserver<BatchEdgesResponse> responseObserver) {
+        return new EdgeBatchObserver<>(responseObserver,
+                r -> new FollowRequest(r.getFollowerId(), r.getFollowedId()), followBatchService::followAll);
+    }
+
+    @Override
+    public StreamObserver<UnfollowUserRequest> unfollowUsers(StreamObserver<BatchEdgesResponse> responseObserver) {
+        return new EdgeBatchObserver<>(responseObserver,
+                r -> new FollowRequest(r.getFollowerId(), r.getFollowedId()), followBatchService::unfollowAll);
+    }
+
+    /**
+     * Pushes chunks only while the transport is ready and resumes from the onReady callback,
+     * so a slow client leaves unread records in Neo4j instead of queueing them in our heap.
+     * Until it is closed (done, failed or cancelled) the cursor holds a pooled Neo4j connection
+     * and one of the follower.grpc.id-streams.max-concurrent permits.
+     * All callbacks run on the call's serializing executor, never concurrently.
+     */
+    private static final class IdStreamer implements Runnable {
+        private final ServerCallStreamObserver<UserIdsChunk> observer;
+        private final IdCursor cursor;
+        private final String rpc;
+        private final Runnable onClose;
+        private boolean closed;
+
+        IdStreamer(ServerCallStreamObserver<UserIdsChunk> observer, IdCursor cursor, String rpc, Runnable onClose) {
+            this.observer = observer;
+            this.cursor = cursor;
+            this.rpc = rpc;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public void run() {
+            if (closed) {
+                return;
+            }
+            try {
+                while (observer.isReady()) {
+                    UserIdsChunk.Builder chunk = UserIdsChunk.newBuilder();
+                    while (chunk.getUserIdsCount() < IDS_PER_CHUNK && cursor.hasNext()) {
+                        chunk.addUserIds(cursor.next());
+                    }
+                    if (chunk.getUserIdsCount() > 0) {
+                        observer.onNext(chunk.build());
+                    }
+                    if (!cursor.hasNext()) {
+                        close();
+                        observer.onCompleted();
+                        return;
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Unexpected error in {}", rpc, e);
+                close();
+                observer.onError(e);
+            }
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                try {
+                    cursor.close();
+                } finally {
+                    onClose.run();
+                }
+            }
+        }
+    }
+
+    // Skuplja ivice iz client-streama i upisuje ih u delovima. onNext ceka da se deo upise,
+    // a gRPC ne trazi sledecu poruku dok onNext ne vrati, pa klijent ne moze da pretrpa server.
+    // Odgovor nosi brojace i samo odbijene ivice (najvise max-reported-rejections), pa ni heap
+    // ni velicina odgovora ne rastu sa brojem ivica u streamu.
+    private final class EdgeBatchObserver<T> implements StreamObserver<T> {
+        private final StreamObserver<BatchEdgesResponse> responseObserver;
+        private final Function<T, FollowRequest> toEdge;
+        private final Function<List<FollowRequest>, BatchFollowResponse> apply;
+        private final List<FollowRequest> pending = new ArrayList<>();
+        private final BatchEdgesResponse.Builder response = BatchEdgesResponse.newBuilder();
+        private boolean failed;
+
+        EdgeBatchObserver(StreamObserver<BatchEdgesResponse> responseObserver, Function<T, FollowRequest> toEdge,
+                          Function<List<FollowRequest>, BatchFollowResponse> apply) {
+            this.responseObserver = responseObserver;
+            this.toEdge = toEdge;
+            this.apply = apply;
+        }
+
+        @Override
+        public void onNext(T value) {
+            if (failed) {
+                return;
+            }
+            pending.add(toEdge.apply(value));
+            if (pending.size() >= batchChunkSize) {
+                try {
+                    flush();
+                } catch (Exception e) {
+                    fail(e);
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // Delovi koji su vec upisani ostaju, ostatak se odbacuje
+            log.warn("Batch stream aborted by client after {} applied edges: {}", response.getApplied(), t.toString());
+            pending.clear();
+        }
+
+        @Override
+        public void onCompleted() {
+            if (failed) {
+                return;
+            }
+            try {
+                flush();
+            } catch (Exception e) {
+                fail(e);
+                return;
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            BatchFollowResponse batch = apply.apply(pending);
+            response.setApplied(response.getApplied() + batch.getApplied())
+                    .setUnchanged(response.getUnchanged() + batch.getUnchanged())
+                    .setRejected(response.getRejected() + batch.getRejected());
+            for (EdgeResultDto result : batch.getResults()) {
+                if (result.getStatus().rejected() && response.getResultsCount() < maxReportedRejections) {
+                    response.addResults(EdgeResult.newBuilder()
+                            .setFollowerId(result.getFollowerId())
+                            .setFollowedId(result.getFollowedId())
+                            .setStatus(EdgeStatus.valueOf(result.getStatus().name())));
+                }
+            }
+            pending.clear();
+        }
+
+        // Vec upisani delovi ostaju; klijent iz opisa zna koliko ih je, ostatak streama se ignorise
+        private void fail(Exception e) {
+            failed = true;
+            pending.clear();
+            String progress = response.getApplied() + " applied, " + response.getUnchanged() + " unchanged, "
+                    + response.getRejected() + " rejected before the failure";
+            log.error("Batch stream failed ({})", progress, e);
+            Status status = e instanceof IllegalArgumentException ? Status.INVALID_ARGUMENT : Status.INTERNAL;
+            responseObserver.onError(status
+                    .withDescription("Batch failed: " + e.getMessage() + "; " + progress)
+                    .withCause(e)
+                    .asRuntimeException());
+        }
     }
 }
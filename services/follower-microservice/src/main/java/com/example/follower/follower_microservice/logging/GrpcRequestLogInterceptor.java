@@ -0,0 +1,50 @@
+package com.example.follower.follower_microservice.logging;
+
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Request log za gRPC: jedna linija kad se poziv zatvori ili ga klijent otkaze
+@Component
+public class GrpcRequestLogInterceptor implements ServerInterceptor {
+
+    private final RequestLog requestLog;
+
+    public GrpcRequestLogInterceptor(RequestLog requestLog) {
+        this.requestLog = requestLog;
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        long start = System.nanoTime();
+        String method = call.getMethodDescriptor().getBareMethodName();
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        ServerCall<Q, R> logged = new SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (recorded.compareAndSet(false, true)) {
+                    requestLog.record("grpc", method, status.getCode().name(), !status.isOk(), start);
+                }
+                super.close(status, trailers);
+            }
+        };
+        return new SimpleForwardingServerCallListener<>(next.startCall(logged, headers)) {
+            @Override
+            public void onCancel() {
+                if (recorded.compareAndSet(false, true)) {
+                    requestLog.record("grpc", method, Status.Code.CANCELLED.name(), false, start);
+                }
+                super.onCancel();
+            }
+        };
+    }
+}
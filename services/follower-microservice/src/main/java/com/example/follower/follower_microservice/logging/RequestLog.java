@@ -0,0 +1,47 @@
+package com.example.follower.follower_microservice.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One key=value line per REST request or gRPC call on the "request-log" logger. Failed and
+ * slow requests are always written, the rest only with probability sample-rate, so log volume
+ * stays flat as traffic grows. Requests that are not sampled cost a random number, nothing
+ * gets formatted.
+ */
+@Component
+public class RequestLog {
+
+    private static final Logger log = LoggerFactory.getLogger("request-log");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public RequestLog(@Value("${follower.request-log.sample-rate:0.01}") double sampleRate,
+                      @Value("${follower.request-log.slow-threshold:PT0.5S}") Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    public void record(String protocol, String operation, String outcome, boolean failed, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (failed) {
+            log.warn("protocol={} op=\"{}\" outcome={} duration_ms={}",
+                    protocol, operation, outcome, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } else if (elapsed >= slowThresholdNanos || sampled()) {
+            log.info("protocol={} op=\"{}\" outcome={} duration_ms={}{}",
+                    protocol, operation, outcome, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    elapsed >= slowThresholdNanos ? " slow=true" : "");
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.follower.follower_microservice.repository;
+
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.async.AsyncSession;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Reads through the driver's async API. The query runs on the driver's event loop and the
+ * stage completes there, so no request thread waits on Neo4j; callbacks chained onto the
+ * result must not block. Used when follower.reads.async is on.
+ */
+@Component
+@Profile("!embedded-graph")
+public class AsyncFollowReads {
+
+    private static final SessionConfig READ = SessionConfig.builder()
+            .withDefaultAccessMode(AccessMode.READ)
+            .build();
+
+    private final Driver driver;
+
+    public AsyncFollowReads(Driver driver) {
+        this.driver = driver;
+    }
+
+    public CompletionStage<List<Long>> followingIds(long userId) {
+        return ids(Neo4jFollowIdCursors.FOLLOWING_IDS, Map.of("userId", userId));
+    }
+
+    // Iste provere kao UserRepository.isFollowing i findFollowedAmong, za korisnike van FollowingCache
+    public CompletionStage<Boolean> isFollowing(long followerId, long followedId) {
+        return ids("MATCH (:User {userId: $followerId})-[:FOLLOWS]->(b:User {userId: $followedId}) RETURN b.userId LIMIT 1",
+                Map.of("followerId", followerId, "followedId", followedId))
+                .thenApply(ids -> !ids.isEmpty());
+    }
+
+    public CompletionStage<List<Long>> followedAmong(long followerId, List<Long> candidateIds) {
+        return ids("MATCH (:User {userId: $followerId})-[:FOLLOWS]->(b:User) WHERE b.userId IN $followedIds RETURN b.userId",
+                Map.of("followerId", followerId, "followedIds", candidateIds));
+    }
+
+    private CompletionStage<List<Long>> ids(String query, Map<String, Object> params) {
+        AsyncSession session = driver.session(AsyncSession.class, READ);
+        return session.runAsync(query, params)
+                .thenCompose(cursor -> cursor.listAsync(record -> record.get(0).asLong()))
+                .thenCompose(ids -> session.closeAsync().thenApply(closed -> ids))
+                .exceptionallyCompose(e -> session.closeAsync()
+                        .thenCompose(closed -> CompletableFuture.failedStage(e)));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.follower.follower_microservice.repository;
+
+import java.util.List;
+import java.util.Map;
+
+// Upis vise FOLLOWS ivica jednim UNWIND upitom (implementacija preko Neo4jClient-a)
+public interface FollowBatchRepository {
+
+    // Ivice su mape {idx, followerId, followedId}; vraca idx ivica koje su tek kreirane
+    List<Integer> mergeFollows(List<Map<String, Object>> edges);
+
+    // Vraca idx ivica koje su postojale i obrisane su
+    List<Integer> deleteFollows(List<Map<String, Object>> edges);
+}
@@ -0,0 +1,56 @@
+package com.example.follower.follower_microservice.repository;
+
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fragment of UserRepository. One round trip per chunk instead of one per edge; the caller
+ * owns the transaction, so a chunk is written or rolled back as a whole. MERGE on
+ * User.userId is only cheap with an index on that property.
+ */
+public class FollowBatchRepositoryImpl implements FollowBatchRepository {
+
+    // Novu ivicu prijavljuje samo red ciji je MERGE kreira (oznaka = idx tog reda), kao kod
+    // UserRepository.mergeFollow; provera pre MERGE-a bi propustila istovremeni isti upis
+    static final String MERGE_FOLLOWS =
+            "UNWIND $edges AS e " +
+            "MERGE (a:User {userId: e.followerId}) ON CREATE SET a.username = 'User' + e.followerId " +
+            "MERGE (b:User {userId: e.followedId}) ON CREATE SET b.username = 'User' + e.followedId " +
+            "MERGE (a)-[r:FOLLOWS]->(b) ON CREATE SET r.created = e.idx " +
+            "WITH e, r, r.created = e.idx AS created " +
+            "REMOVE r.created " +
+            "WITH e, created WHERE created " +
+            "RETURN e.idx AS idx";
+
+    static final String DELETE_FOLLOWS =
+            "UNWIND $edges AS e " +
+            "MATCH (:User {userId: e.followerId})-[r:FOLLOWS]->(:User {userId: e.followedId}) " +
+            "DELETE r " +
+            "RETURN DISTINCT e.idx AS idx";
+
+    private final Neo4jClient neo4jClient;
+
+    public FollowBatchRepositoryImpl(Neo4jClient neo4jClient) {
+        this.neo4jClient = neo4jClient;
+    }
+
+    @Override
+    public List<Integer> mergeFollows(List<Map<String, Object>> edges) {
+        return run(MERGE_FOLLOWS, edges);
+    }
+
+    @Override
+    public List<Integer> deleteFollows(List<Map<String, Object>> edges) {
+        return run(DELETE_FOLLOWS, edges);
+    }
+
+    private List<Integer> run(String cypher, List<Map<String, Object>> edges) {
+        return List.copyOf(neo4jClient.query(cypher)
+                .bind(edges).to("edges")
+                .fetchAs(Integer.class)
+                .mappedBy((types, record) -> record.get("idx").asInt())
+                .all());
+    }
+}
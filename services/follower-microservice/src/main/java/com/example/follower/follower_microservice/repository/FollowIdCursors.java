@@ -0,0 +1,41 @@
+package com.example.follower.follower_microservice.repository;
+
+// Izvor ID-jeva za gRPC streamove; Neo4j kursor ili, u embedded-graph profilu, niz iz memorije
+public interface FollowIdCursors {
+
+    // limit 0 = svi pratioci
+    IdCursor followerIds(long userId, int limit);
+
+    IdCursor followingIds(long userId, int limit);
+
+    // Nije thread-safe; mora se zatvoriti
+    interface IdCursor extends AutoCloseable {
+
+        boolean hasNext();
+
+        long next();
+
+        @Override
+        void close();
+
+        static IdCursor of(long[] ids) {
+            return new IdCursor() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < ids.length;
+                }
+
+                @Override
+                public long next() {
+                    return ids[next++];
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
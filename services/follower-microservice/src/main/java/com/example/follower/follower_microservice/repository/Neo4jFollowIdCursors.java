@@ -0,0 +1,90 @@
+package com.example.follower.follower_microservice.repository;
+
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Follower / following ids read straight from a driver result instead of a List. The driver
+ * pulls records from the server in fetch-size batches as the cursor advances, so memory stays
+ * bounded however many ids the user has; the caller decides how fast to advance. Each open
+ * cursor holds a session and so a pooled connection until it is closed, which is why
+ * FollowerGrpcService caps how many id streams run at once.
+ */
+@Component
+@Profile("!embedded-graph")
+public class Neo4jFollowIdCursors implements FollowIdCursors {
+
+    static final String FOLLOWER_IDS =
+            "MATCH (follower:User)-[:FOLLOWS]->(:User {userId: $userId}) RETURN follower.userId";
+    static final String FOLLOWING_IDS =
+            "MATCH (:User {userId: $userId})-[:FOLLOWS]->(following:User) RETURN following.userId";
+
+    private static final SessionConfig READ = SessionConfig.builder()
+            .withDefaultAccessMode(AccessMode.READ)
+            .build();
+
+    private final Driver driver;
+
+    public Neo4jFollowIdCursors(Driver driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    public IdCursor followerIds(long userId, int limit) {
+        return open(FOLLOWER_IDS, userId, limit);
+    }
+
+    @Override
+    public IdCursor followingIds(long userId, int limit) {
+        return open(FOLLOWING_IDS, userId, limit);
+    }
+
+    private IdCursor open(String cypher, long userId, int limit) {
+        Session session = driver.session(READ);
+        try {
+            Result result = limit > 0
+                    ? session.run(cypher + " LIMIT $limit", Map.of("userId", userId, "limit", limit))
+                    : session.run(cypher, Map.of("userId", userId));
+            return new ResultCursor(session, result);
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open result plus the session that owns it. Not thread-safe; must be closed, otherwise the
+     * session (and its pooled connection) stays checked out.
+     */
+    private static final class ResultCursor implements IdCursor {
+        private final Session session;
+        private final Result result;
+
+        private ResultCursor(Session session, Result result) {
+            this.session = session;
+            this.result = result;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return result.hasNext();
+        }
+
+        @Override
+        public long next() {
+            return result.next().get(0).asLong();
+        }
+
+        @Override
+        public void close() {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.follower.follower_microservice.repository;
+
+import com.example.follower.follower_microservice.dto.RecommendationDto;
+
+import java.util.List;
+
+// Rangirane preporuke (prijatelji prijatelja po broju zajednickih), implementacija preko Neo4jClient-a
+public interface RecommendationRepository {
+
+    // Da li je periodicni posao vec upisao RECOMMENDED relacije za korisnika
+    boolean hasStoredRecommendations(Long userId);
+
+    // Citanje upisanih preporuka posle pozicije (afterScore, afterUserId), sortirano po (score desc, userId asc)
+    List<RecommendationDto> findStoredRecommendations(Long userId, long afterScore, long afterUserId, int limit);
+
+    // Isto, ali racunato uzivo obilaskom grafa (za korisnike koje posao jos nije obradio)
+    List<RecommendationDto> findLiveRecommendations(Long userId, long afterScore, long afterUserId, int limit);
+
+    // Sledeca grupa userId-jeva vecih od afterUserId, za obilazak svih korisnika
+    List<Long> findUserIdsAfter(long afterUserId, int limit);
+
+    // Zamenjuje RECOMMENDED relacije zadatih korisnika sa top-K kandidata; vraca broj upisanih
+    long storeRecommendations(List<Long> userIds);
+}
@@ -0,0 +1,149 @@
+package com.example.follower.follower_microservice.repository;
+
+import com.example.follower.follower_microservice.dto.RecommendationDto;
+import org.neo4j.driver.Record;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fragment of UserRepository. A candidate's score is the number of users I follow who follow
+ * them. Both hops are capped (hop1-cap of my followees, hop2-cap followees of each), so a
+ * well-connected user costs at most hop1 * hop2 expansions instead of the whole two-hop
+ * neighbourhood; past the caps the score is an estimate.
+ *
+ * The refresh job stores the top-K per user as (me)-[:RECOMMENDED {score}]->(u) and reads
+ * filter out users I started following since, so a page is one index seek plus a sort of
+ * at most K relationships. Uses the CALL (...) { } scope syntax, so it needs Neo4j 5.23+.
+ */
+public class RecommendationRepositoryImpl implements RecommendationRepository {
+
+    // Ocekuje me; ostavlja (me, u, score) za svakog kandidata
+    private static final String EXPAND =
+            "MATCH (me)-[:FOLLOWS]->(f:User) " +
+            "WITH me, f LIMIT $hop1Cap " +
+            "CALL (me, f) { " +
+            "  MATCH (f)-[:FOLLOWS]->(u:User) " +
+            "  WHERE u <> me AND NOT (me)-[:FOLLOWS]->(u) " +
+            "  RETURN u LIMIT $hop2Cap } " +
+            "WITH me, u, count(*) AS score ";
+
+    // Keyset uslov za (score desc, userId asc)
+    private static final String AFTER =
+            "(score < $afterScore OR (score = $afterScore AND u.userId > $afterUserId)) ";
+
+    private static final String PAGE =
+            "ORDER BY score DESC, u.userId ASC LIMIT $limit " +
+            "RETURN u.userId AS userId, u.username AS username, " +
+            "COUNT { (u)<-[:FOLLOWS]-() } AS followersCount, " +
+            "COUNT { (u)-[:FOLLOWS]->() } AS followingCount, " +
+            "score AS mutualCount";
+
+    static final String STORED =
+            "MATCH (me:User {userId: $userId})-[r:RECOMMENDED]->(u:User) " +
+            "WHERE NOT (me)-[:FOLLOWS]->(u) " +
+            "WITH u, r.score AS score WHERE " + AFTER +
+            "WITH u, score " + PAGE;
+
+    static final String LIVE =
+            "MATCH (me:User {userId: $userId}) " + EXPAND +
+            "WHERE " + AFTER +
+            "WITH u, score " + PAGE;
+
+    static final String STORE =
+            "UNWIND $userIds AS uid " +
+            "MATCH (me:User {userId: uid}) " +
+            "OPTIONAL MATCH (me)-[old:RECOMMENDED]->() " +
+            "DELETE old " +
+            "WITH DISTINCT me " +
+            "CALL (me) { " + EXPAND +
+            "  ORDER BY score DESC, u.userId ASC LIMIT $topK " +
+            "  CREATE (me)-[:RECOMMENDED {score: score}]->(u) " +
+            "  RETURN count(*) AS written } " +
+            "SET me.recommendationsComputedAt = datetime() " +
+            "RETURN sum(written) AS written";
+
+    static final String COMPUTED =
+            "MATCH (me:User {userId: $userId}) " +
+            "RETURN me.recommendationsComputedAt IS NOT NULL AS computed";
+
+    static final String USER_IDS_AFTER =
+            "MATCH (u:User) WHERE u.userId > $afterUserId " +
+            "RETURN u.userId AS userId ORDER BY u.userId LIMIT $limit";
+
+    private final Neo4jClient neo4jClient;
+    private final int hop1Cap;
+    private final int hop2Cap;
+    private final int topK;
+
+    public RecommendationRepositoryImpl(Neo4jClient neo4jClient,
+                                        @Value("${follower.recommendations.hop1-cap:500}") int hop1Cap,
+                                        @Value("${follower.recommendations.hop2-cap:200}") int hop2Cap,
+                                        @Value("${follower.recommendations.top-k:100}") int topK) {
+        this.neo4jClient = neo4jClient;
+        this.hop1Cap = hop1Cap;
+        this.hop2Cap = hop2Cap;
+        this.topK = topK;
+    }
+
+    @Override
+    public boolean hasStoredRecommendations(Long userId) {
+        return neo4jClient.query(COMPUTED)
+                .bind(userId).to("userId")
+                .fetchAs(Boolean.class)
+                .mappedBy((types, record) -> record.get("computed").asBoolean())
+                .one()
+                .orElse(false);
+    }
+
+    @Override
+    public List<RecommendationDto> findStoredRecommendations(Long userId, long afterScore, long afterUserId, int limit) {
+        return fetch(STORED, Map.of("userId", userId, "afterScore", afterScore,
+                "afterUserId", afterUserId, "limit", limit));
+    }
+
+    @Override
+    public List<RecommendationDto> findLiveRecommendations(Long userId, long afterScore, long afterUserId, int limit) {
+        return fetch(LIVE, Map.of("userId", userId, "afterScore", afterScore, "afterUserId", afterUserId,
+                "limit", limit, "hop1Cap", hop1Cap, "hop2Cap", hop2Cap));
+    }
+
+    @Override
+    public List<Long> findUserIdsAfter(long afterUserId, int limit) {
+        return List.copyOf(neo4jClient.query(USER_IDS_AFTER)
+                .bindAll(Map.of("afterUserId", afterUserId, "limit", limit))
+                .fetchAs(Long.class)
+                .mappedBy((types, record) -> record.get("userId").asLong())
+                .all());
+    }
+
+    @Override
+    public long storeRecommendations(List<Long> userIds) {
+        return neo4jClient.query(STORE)
+                .bindAll(Map.of("userIds", userIds, "hop1Cap", hop1Cap, "hop2Cap", hop2Cap, "topK", topK))
+                .fetchAs(Long.class)
+                .mappedBy((types, record) -> record.get("written").asLong(0))
+                .one()
+                .orElse(0L);
+    }
+
+    private List<RecommendationDto> fetch(String cypher, Map<String, Object> params) {
+        return List.copyOf(neo4jClient.query(cypher)
+                .bindAll(params)
+                .fetchAs(RecommendationDto.class)
+                .mappedBy((types, record) -> toRecommendation(record))
+                .all());
+    }
+
+    private static RecommendationDto toRecommendation(Record record) {
+        return RecommendationDto.builder()
+                .userId(record.get("userId").asLong())
+                .username(record.get("username").asString(null))
+                .followersCount(record.get("followersCount").asLong())
+                .followingCount(record.get("followingCount").asLong())
+                .mutualCount(record.get("mutualCount").asLong())
+                .build();
+    }
+}
@@ -10,10 +10,10 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 @Repository
-public interface UserRepository extends Neo4jRepository<User, Long> {
+public interface UserRepository extends Neo4jRepository<User, Long>, UserSummaryRepository, FollowBatchRepository,
+        RecommendationRepository {
     // Pronalazenje korisnika sa njegovim pratiteljima i onima koje prati
     @Query("MATCH (u:User {userId: $userId}) " +
             "OPTIONAL MATCH (u)-[:FOLLOWS]->(following) " +
@@ -21,36 +21,43 @@ public interface UserRepository extends Neo4jRepository<User, Long> {
             "RETURN u, collect(DISTINCT following) as following, collect(DISTINCT follower) as followers")
     Optional<User> findByUserIdWithRelations(@Param("userId") Long userId);
 
-    // Dobavljanje svih korisnika koje određeni korisnik prati
-    @Query("MATCH (u:User {userId: $userId})-[:FOLLOWS]->(following) " +
-            "RETURN following")
-    Set<User> findFollowingByUserId(@Param("userId") Long userId);
-
-    // Dobavljanje svih pratioca odredjenog korisnika
-    @Query("MATCH (follower)-[:FOLLOWS]->(u:User {userId: $userId}) " +
-            "RETURN follower")
-    Set<User> findFollowersByUserId(@Param("userId") Long userId);
+    // Idempotentno pracenje u jednom upitu: kreira cvorove i relaciju ako ne postoje,
+    // vraca true ako je relacija nova. Ne ucitava postojece FOLLOWS relacije korisnika.
+    // "Nova" odlucuje sam MERGE (ON CREATE, pod zakljucanim cvorovima), ne provera pre njega,
+    // pa od dva istovremena ista pracenja samo jedno dobija true; privremena oznaka se brise odmah
+    @Query("MERGE (a:User {userId: $followerId}) ON CREATE SET a.username = 'User' + $followerId " +
+            "MERGE (b:User {userId: $followedId}) ON CREATE SET b.username = 'User' + $followedId " +
+            "MERGE (a)-[r:FOLLOWS]->(b) ON CREATE SET r.created = true " +
+            "WITH r, r.created IS NOT NULL AS created " +
+            "REMOVE r.created " +
+            "RETURN created")
+    boolean mergeFollow(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
 
     // Provera da li korisnik A prati korisnika B
     @Query("MATCH (a:User {userId: $followerId})-[:FOLLOWS]->(b:User {userId: $followedId}) " +
             "RETURN COUNT(*) > 0")
     boolean isFollowing(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
 
-    // Preporuke za pracenje (Friends of Friends)
-    @Query("MATCH (u:User {userId: $userId})-[:FOLLOWS]->(friend)-[:FOLLOWS]->(recommendation) " +
-            "WHERE NOT (u)-[:FOLLOWS]->(recommendation) " +
-            "AND recommendation.userId <> $userId " +
-            "RETURN DISTINCT recommendation " +
-            "LIMIT $limit")
-    List<User> findRecommendations(@Param("userId") Long userId, @Param("limit") int limit);
-
     // Dobavljanje samo ID-jeva korisnika koje prati
     @Query("MATCH (u:User {userId: $userId})-[:FOLLOWS]->(following) " +
             "RETURN following.userId")
     List<Long> findFollowingUserIds(@Param("userId") Long userId);
 
-    // Brisanje FOLLOWS relacije izmedju dva korisnika
+    // Dobavljanje ID-jeva pratilaca, najvise $limit
+    @Query("MATCH (follower:User)-[:FOLLOWS]->(u:User {userId: $userId}) " +
+            "RETURN follower.userId " +
+            "LIMIT $limit")
+    List<Long> findFollowerUserIds(@Param("userId") Long userId, @Param("limit") long limit);
+
+    // Koje od zadatih korisnika korisnik prati
+    @Query("MATCH (a:User {userId: $followerId})-[:FOLLOWS]->(b:User) " +
+            "WHERE b.userId IN $followedIds " +
+            "RETURN b.userId")
+    List<Long> findFollowedAmong(@Param("followerId") Long followerId, @Param("followedIds") List<Long> followedIds);
+
+    // Brisanje FOLLOWS relacije izmedju dva korisnika, vraca broj obrisanih relacija
     @Query("MATCH (follower:User {userId: $followerId})-[r:FOLLOWS]->(followed:User {userId: $followedId}) " +
-            "DELETE r")
-    void deleteFollowRelationship(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+            "DELETE r " +
+            "RETURN count(r)")
+    long deleteFollowRelationship(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
 }
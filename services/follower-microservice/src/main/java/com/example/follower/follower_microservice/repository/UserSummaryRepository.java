@@ -0,0 +1,13 @@
+package com.example.follower.follower_microservice.repository;
+
+import com.example.follower.follower_microservice.dto.UserSummaryDto;
+
+import java.util.List;
+
+// Liste korisnika sa brojacima u jednom Cypher upitu (implementacija preko Neo4jClient-a)
+public interface UserSummaryRepository {
+
+    List<UserSummaryDto> findFollowingSummaries(Long userId);
+
+    List<UserSummaryDto> findFollowerSummaries(Long userId);
+}
@@ -0,0 +1,58 @@
+package com.example.follower.follower_microservice.repository;
+
+import com.example.follower.follower_microservice.dto.UserSummaryDto;
+import org.neo4j.driver.Record;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fragment of UserRepository. SDN maps custom queries onto the User entity only, so the
+ * summaries go through Neo4jClient. COUNT { (u)<-[:FOLLOWS]-() } with an unlabelled far end
+ * is answered from the node's degree store, so the counts cost O(1) per user instead of
+ * loading the neighbours.
+ */
+public class UserSummaryRepositoryImpl implements UserSummaryRepository {
+
+    private static final String SUMMARY =
+            "RETURN u.userId AS userId, u.username AS username, " +
+            "COUNT { (u)<-[:FOLLOWS]-() } AS followersCount, " +
+            "COUNT { (u)-[:FOLLOWS]->() } AS followingCount";
+
+    static final String FOLLOWING = "MATCH (:User {userId: $userId})-[:FOLLOWS]->(u:User) " + SUMMARY;
+    static final String FOLLOWERS = "MATCH (u:User)-[:FOLLOWS]->(:User {userId: $userId}) " + SUMMARY;
+
+    private final Neo4jClient neo4jClient;
+
+    public UserSummaryRepositoryImpl(Neo4jClient neo4jClient) {
+        this.neo4jClient = neo4jClient;
+    }
+
+    @Override
+    public List<UserSummaryDto> findFollowingSummaries(Long userId) {
+        return fetch(FOLLOWING, Map.of("userId", userId));
+    }
+
+    @Override
+    public List<UserSummaryDto> findFollowerSummaries(Long userId) {
+        return fetch(FOLLOWERS, Map.of("userId", userId));
+    }
+
+    private List<UserSummaryDto> fetch(String cypher, Map<String, Object> params) {
+        return List.copyOf(neo4jClient.query(cypher)
+                .bindAll(params)
+                .fetchAs(UserSummaryDto.class)
+                .mappedBy((types, record) -> toSummary(record))
+                .all());
+    }
+
+    private static UserSummaryDto toSummary(Record record) {
+        return UserSummaryDto.builder()
+                .userId(record.get("userId").asLong())
+                .username(record.get("username").asString(null))
+                .followersCount(record.get("followersCount").asLong())
+                .followingCount(record.get("followingCount").asLong())
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.follower.follower_microservice.service;
+
+import com.example.follower.follower_microservice.dto.BatchFollowResponse;
+import com.example.follower.follower_microservice.dto.FollowRequest;
+import com.example.follower.follower_microservice.dto.ImportResultDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+public interface FollowBatchService {
+
+    BatchFollowResponse followAll(List<FollowRequest> edges);
+    BatchFollowResponse unfollowAll(List<FollowRequest> edges);
+
+    ImportResultDto importCsv(Reader csv) throws IOException;
+}
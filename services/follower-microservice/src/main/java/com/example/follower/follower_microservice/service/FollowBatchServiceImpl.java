@@ -0,0 +1,182 @@
+package com.example.follower.follower_microservice.service;
+
+import com.example.follower.follower_microservice.dto.BatchFollowResponse;
+import com.example.follower.follower_microservice.dto.EdgeResultDto;
+import com.example.follower.follower_microservice.dto.EdgeResultDto.Status;
+import com.example.follower.follower_microservice.dto.FollowRequest;
+import com.example.follower.follower_microservice.dto.ImportResultDto;
+import com.example.follower.follower_microservice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies many FOLLOWS edges per call. Edges are sent to Neo4j in chunks, one UNWIND query
+ * and one transaction per chunk, so a huge batch never holds one huge transaction and a
+ * failing chunk does not undo the ones before it.
+ */
+@Service
+@Profile("!embedded-graph")
+public class FollowBatchServiceImpl implements FollowBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowBatchServiceImpl.class);
+
+    private final UserRepository userRepository;
+    private final FollowingCache followingCache;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final int maxEdges;
+    private final int importChunkSize;
+
+    public FollowBatchServiceImpl(UserRepository userRepository, FollowingCache followingCache,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${follower.batch.chunk-size:1000}") int chunkSize,
+                                  @Value("${follower.batch.max-edges:10000}") int maxEdges,
+                                  @Value("${follower.import.chunk-size:10000}") int importChunkSize) {
+        this.userRepository = userRepository;
+        this.followingCache = followingCache;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxEdges = maxEdges;
+        this.importChunkSize = importChunkSize;
+    }
+
+    @Override
+    public BatchFollowResponse followAll(List<FollowRequest> edges) {
+        return apply(edges, true);
+    }
+
+    @Override
+    public BatchFollowResponse unfollowAll(List<FollowRequest> edges) {
+        return apply(edges, false);
+    }
+
+    private BatchFollowResponse apply(List<FollowRequest> edges, boolean follow) {
+        if (edges.size() > maxEdges) {
+            throw new IllegalArgumentException("At most " + maxEdges + " edges per request");
+        }
+        Status[] statuses = new Status[edges.size()];
+        // Ponovljena ivica dobija ishod prve pojave, u upit ide samo jednom
+        Map<FollowKey, Integer> firstIndex = new HashMap<>();
+        int[] duplicateOf = new int[edges.size()];
+        List<Map<String, Object>> chunk = new ArrayList<>(Math.min(chunkSize, edges.size()));
+
+        for (int i = 0; i < edges.size(); i++) {
+            duplicateOf[i] = -1;
+            FollowRequest edge = edges.get(i);
+            if (edge == null || edge.getFollowerId() == null || edge.getFollowedId() == null
+                    || edge.getFollowerId().equals(edge.getFollowedId())) {
+                statuses[i] = Status.INVALID;
+                continue;
+            }
+            Integer first = firstIndex.putIfAbsent(new FollowKey(edge.getFollowerId(), edge.getFollowedId()), i);
+            if (first != null) {
+                duplicateOf[i] = first;
+                continue;
+            }
+            chunk.add(Map.of("idx", i, "followerId", edge.getFollowerId(), "followedId", edge.getFollowedId()));
+            if (chunk.size() == chunkSize) {
+                flush(chunk, follow, statuses);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flush(chunk, follow, statuses);
+        }
+
+        Status unchanged = follow ? Status.ALREADY_FOLLOWING : Status.NOT_FOLLOWING;
+        List<EdgeResultDto> results = new ArrayList<>(edges.size());
+        for (int i = 0; i < edges.size(); i++) {
+            if (duplicateOf[i] >= 0) {
+                Status original = statuses[duplicateOf[i]];
+                statuses[i] = original == Status.FAILED ? Status.FAILED : unchanged;
+            }
+            FollowRequest edge = edges.get(i);
+            results.add(new EdgeResultDto(edge == null ? null : edge.getFollowerId(),
+                    edge == null ? null : edge.getFollowedId(), statuses[i]));
+        }
+        return new BatchFollowResponse(results);
+    }
+
+    private void flush(List<Map<String, Object>> chunk, boolean follow, Status[] statuses) {
+        Status applied = follow ? Status.CREATED : Status.REMOVED;
+        Status unchanged = follow ? Status.ALREADY_FOLLOWING : Status.NOT_FOLLOWING;
+        try {
+            List<Integer> changed = tx.execute(s -> follow
+                    ? userRepository.mergeFollows(chunk)
+                    : userRepository.deleteFollows(chunk));
+            invalidateFollowers(chunk);
+            for (Map<String, Object> edge : chunk) {
+                statuses[(Integer) edge.get("idx")] = unchanged;
+            }
+            for (Integer idx : changed) {
+                statuses[idx] = applied;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Batch {} of {} edges failed: {}", follow ? "follow" : "unfollow", chunk.size(), e.toString());
+            for (Map<String, Object> edge : chunk) {
+                statuses[(Integer) edge.get("idx")] = Status.FAILED;
+            }
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Unlike the batch calls a failing chunk aborts the import: everything is MERGEd, so
+     * running the same file again is safe.
+     */
+    @Override
+    public ImportResultDto importCsv(Reader csv) throws IOException {
+        ImportResultDto result = new ImportResultDto();
+        List<Map<String, Object>> chunk = new ArrayList<>(importChunkSize);
+        Set<FollowKey> inChunk = new HashSet<>();
+        FollowCsvReader.read(csv, result, (followerId, followedId) -> {
+            if (!inChunk.add(new FollowKey(followerId, followedId))) {
+                result.addExisting(1);
+                return;
+            }
+            chunk.add(Map.of("idx", chunk.size(), "followerId", followerId, "followedId", followedId));
+            if (chunk.size() == importChunkSize) {
+                importChunk(chunk, result);
+                inChunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+        log.info("Imported {} lines: {} created, {} existing, {} rejected",
+                result.getLines(), result.getCreated(), result.getExisting(), result.getRejected());
+        return result;
+    }
+
+    private void importChunk(List<Map<String, Object>> chunk, ImportResultDto result) {
+        List<Integer> created = tx.execute(s -> userRepository.mergeFollows(chunk));
+        invalidateFollowers(chunk);
+        result.addCreated(created.size());
+        result.addExisting(chunk.size() - created.size());
+        chunk.clear();
+    }
+
+    // Deo je vec commit-ovan, pa se kes moze odmah ocistiti
+    private void invalidateFollowers(List<Map<String, Object>> chunk) {
+        Set<Long> followerIds = new HashSet<>();
+        for (Map<String, Object> edge : chunk) {
+            followerIds.add((Long) edge.get("followerId"));
+        }
+        followingCache.invalidateAfterCommit(followerIds);
+    }
+
+    private record FollowKey(long followerId, long followedId) {}
+}
@@ -0,0 +1,61 @@
+package com.example.follower.follower_microservice.service;
+
+import com.example.follower.follower_microservice.dto.ImportResultDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads "followerId,followedId" lines for the CSV import; blank lines, '#' comments and a
+ * header line are skipped, malformed lines and self-follows are counted as rejected.
+ */
+public final class FollowCsvReader {
+
+    @FunctionalInterface
+    public interface EdgeHandler {
+        void edge(long followerId, long followedId);
+    }
+
+    private FollowCsvReader() {
+    }
+
+    // Postavlja broj procitanih linija u result; ispravne ivice prosledjuje handler-u
+    public static void read(Reader csv, ImportResultDto result, EdgeHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(csv);
+        long lineNo = 0;
+        boolean headerAllowed = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(",");
+            if (parts.length != 2) {
+                result.reject(lineNo, "expected followerId,followedId");
+                continue;
+            }
+            long followerId;
+            long followedId;
+            try {
+                followerId = Long.parseLong(parts[0].trim());
+                followedId = Long.parseLong(parts[1].trim());
+            } catch (NumberFormatException e) {
+                if (!headerAllowed) {
+                    result.reject(lineNo, "user ids must be numbers");
+                }
+                headerAllowed = false;
+                continue;
+            }
+            headerAllowed = false;
+            if (followerId == followedId) {
+                result.reject(lineNo, "user cannot follow themselves");
+                continue;
+            }
+            handler.edge(followerId, followedId);
+        }
+        result.setLines(lineNo);
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.follower.follower_microservice.service;
 
+import com.example.follower.follower_microservice.dto.RecommendationPageDto;
 import com.example.follower.follower_microservice.dto.UserFollowersDto;
+import com.example.follower.follower_microservice.dto.UserSummaryDto;
 import com.example.follower.follower_microservice.entity.User;
 
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 public interface FollowerService {
 
     boolean followUser(Long followerId, Long followedId);
@@ -12,13 +14,22 @@ public interface FollowerService {
 
     List<Long> getFollowingIds(Long userId);
     List<Long> getFollowerIds(Long userId);
-    Set<User> getFollowing(Long userId);
-    Set<User> getFollowers(Long userId);
+    List<Long> getFollowerIds(Long userId, int limit);
+    List<UserSummaryDto> getFollowing(Long userId);
+    List<UserSummaryDto> getFollowers(Long userId);
 
     boolean isFollowing(Long followerId, Long followedId);
+    List<Long> getFollowedAmong(Long followerId, List<Long> candidateIds);
+
+    // Ista citanja bez blokiranja niti dok Neo4j radi (follower.reads.async); inace odmah zavrsena
+    CompletableFuture<List<Long>> getFollowingIdsAsync(Long userId);
+    CompletableFuture<Boolean> isFollowingAsync(Long followerId, Long followedId);
+    CompletableFuture<List<Long>> getFollowedAmongAsync(Long followerId, List<Long> candidateIds);
+
     UserFollowersDto getUserFollowInfo(Long userId);
 
-    List<User> getRecommendations(Long userId, int limit);
+    List<UserSummaryDto> getRecommendations(Long userId, int limit);
+    RecommendationPageDto getRecommendationPage(Long userId, int size, String cursor);
 
     User createOrUpdateUser(Long userId, String username);
 }
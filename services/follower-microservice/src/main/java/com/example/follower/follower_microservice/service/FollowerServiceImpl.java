@@ -1,137 +1,155 @@
 package com.example.follower.follower_microservice.service;
 
+import com.example.follower.follower_microservice.dto.RecommendationDto;
+import com.example.follower.follower_microservice.dto.RecommendationPageDto;
 import com.example.follower.follower_microservice.dto.UserFollowersDto;
+import com.example.follower.follower_microservice.dto.UserSummaryDto;
 import com.example.follower.follower_microservice.entity.User;
 import com.example.follower.follower_microservice.exception.UserNotFoundException;
 import com.example.follower.follower_microservice.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
+@Profile("!embedded-graph")
 public class FollowerServiceImpl implements FollowerService {
     private final UserRepository userRepository;
+    private final FollowingCache followingCache;
+    private final int maxRecommendationPageSize;
+    private final boolean asyncReads;
     private static final Logger log = LoggerFactory.getLogger(FollowerServiceImpl.class);
 
-    public FollowerServiceImpl(UserRepository userRepository) {
+    public FollowerServiceImpl(UserRepository userRepository, FollowingCache followingCache,
+                               @Value("${follower.recommendations.max-page-size:100}") int maxRecommendationPageSize,
+                               @Value("${follower.reads.async:false}") boolean asyncReads) {
         this.userRepository = userRepository;
+        this.followingCache = followingCache;
+        this.maxRecommendationPageSize = maxRecommendationPageSize;
+        this.asyncReads = asyncReads;
     }
 
     @Override
     public boolean followUser(Long followerId, Long followedId) {
         // Zabrani samopraćenje kao 400 Bad Request
         if (followerId.equals(followedId)) {
-            log.warn("User {} tried to follow themselves", followerId);
             throw new IllegalArgumentException("User cannot follow themselves");
         }
 
-        // Ako vec prati, vrati 409 Conflict
-        if (isFollowing(followerId, followedId)) {
-            log.info("User {} already follows user {}", followerId, followedId);
+        // Jedan MERGE upit; ako je relacija vec postojala, vrati 409 Conflict
+        if (!userRepository.mergeFollow(followerId, followedId)) {
             throw new IllegalStateException("User already follows the target user");
         }
+        followingCache.invalidateAfterCommit(List.of(followerId));
 
-        // Pronadji ili kreiraj oba korisnika
-        User follower = userRepository.findById(followerId)
-                .orElseGet(() -> createOrUpdateUser(followerId, "User" + followerId));
-
-        User followed = userRepository.findById(followedId)
-                .orElseGet(() -> createOrUpdateUser(followedId, "User" + followedId));
-
-        // Dodaj pracenje
-        follower.follow(followed);
-        userRepository.save(follower);
-
-        log.info("User {} now follows user {}", followerId, followedId);
+        log.debug("User {} now follows user {}", followerId, followedId);
         return true;
     }
 
     @Override
     public boolean unfollowUser(Long followerId, Long followedId) {
-        log.info("=== UNFOLLOW REQUEST START ===");
-        log.info("Follower ID: {}, Followed ID: {}", followerId, followedId);
-        
         try {
             // Zabrani samopraćenje
             if (followerId.equals(followedId)) {
-                log.warn("User {} tried to unfollow themselves", followerId);
                 return false;
             }
 
-            // Proveri da li prati korisnika
-            boolean isCurrentlyFollowing = isFollowing(followerId, followedId);
-            log.info("Is user {} currently following user {}? {}", followerId, followedId, isCurrentlyFollowing);
-            
-            if (!isCurrentlyFollowing) {
-                log.info("User {} does not follow user {}", followerId, followedId);
+            // Direktno brisanje FOLLOWS relacije; 0 obrisanih znaci da korisnik nije pratio
+            if (userRepository.deleteFollowRelationship(followerId, followedId) == 0) {
                 return false;
             }
-
-            // Direktno brisanje FOLLOWS relacije izmedju dva korisnika
-            log.info("Deleting FOLLOWS relationship between {} and {}", followerId, followedId);
-            userRepository.deleteFollowRelationship(followerId, followedId);
-            log.info("Successfully deleted FOLLOWS relationship");
-
-            log.info("User {} successfully unfollowed user {}", followerId, followedId);
-            log.info("=== UNFOLLOW REQUEST END ===");
+            followingCache.invalidateAfterCommit(List.of(followerId));
+            log.debug("User {} unfollowed user {}", followerId, followedId);
             return true;
 
         } catch (Exception e) {
             log.error("Error while unfollowing user: {}", e.getMessage(), e);
-            log.info("=== UNFOLLOW REQUEST END (ERROR) ===");
             return false;
         }
     }
 
+    // Citanja iz FollowingCache ne otvaraju Neo4j transakciju; promasaj ucitava preko repozitorijuma
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Long> getFollowingIds(Long userId) {
-        return userRepository.findFollowingUserIds(userId);
+        return followingCache.followingIds(userId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Long> getFollowerIds(Long userId) {
-        Set<User> followers = userRepository.findFollowersByUserId(userId);
-        return followers.stream()
-                .map(User::getUserId)
-                .collect(Collectors.toList());
+        return getFollowerIds(userId, 0);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Set<User> getFollowing(Long userId) {
-        Set<User> following = userRepository.findFollowingByUserId(userId);
-        // Za svakog korisnika, učitaj broj followers i following
-        for (User user : following) {
-            user.setFollowersCount(userRepository.findFollowersByUserId(user.getUserId()).size());
-            user.setFollowingCount(userRepository.findFollowingByUserId(user.getUserId()).size());
-        }
-        return following;
+    public List<Long> getFollowerIds(Long userId, int limit) {
+        return userRepository.findFollowerUserIds(userId, limit > 0 ? limit : Long.MAX_VALUE);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Set<User> getFollowers(Long userId) {
-        Set<User> followers = userRepository.findFollowersByUserId(userId);
-        // Za svakog korisnika, učitaj broj followers i following
-        for (User user : followers) {
-            user.setFollowersCount(userRepository.findFollowersByUserId(user.getUserId()).size());
-            user.setFollowingCount(userRepository.findFollowingByUserId(user.getUserId()).size());
-        }
-        return followers;
+    public List<UserSummaryDto> getFollowing(Long userId) {
+        return userRepository.findFollowingSummaries(userId);
     }
 
     @Override
     @Transactional(readOnly = true)
+    public List<UserSummaryDto> getFollowers(Long userId) {
+        return userRepository.findFollowerSummaries(userId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean isFollowing(Long followerId, Long followedId) {
-        return userRepository.isFollowing(followerId, followedId);
+        return followingCache.isFollowing(followerId, followedId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Long> getFollowedAmong(Long followerId, List<Long> candidateIds) {
+        if (candidateIds == null || candidateIds.isEmpty()) {
+            return List.of();
+        }
+        return followingCache.followedAmong(followerId, candidateIds);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CompletableFuture<List<Long>> getFollowingIdsAsync(Long userId) {
+        if (!asyncReads) {
+            return CompletableFuture.completedFuture(followingCache.followingIds(userId));
+        }
+        return followingCache.followingIdsAsync(userId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CompletableFuture<Boolean> isFollowingAsync(Long followerId, Long followedId) {
+        if (!asyncReads) {
+            return CompletableFuture.completedFuture(followingCache.isFollowing(followerId, followedId));
+        }
+        return followingCache.isFollowingAsync(followerId, followedId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CompletableFuture<List<Long>> getFollowedAmongAsync(Long followerId, List<Long> candidateIds) {
+        if (candidateIds == null || candidateIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (!asyncReads) {
+            return CompletableFuture.completedFuture(followingCache.followedAmong(followerId, candidateIds));
+        }
+        return followingCache.followedAmongAsync(followerId, candidateIds);
     }
 
     @Override
@@ -151,14 +169,35 @@ public class FollowerServiceImpl implements FollowerService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> getRecommendations(Long userId, int limit) {
-        List<User> recommendations = userRepository.findRecommendations(userId, limit);
-        // Za svakog korisnika, učitaj broj followers i following
-        for (User user : recommendations) {
-            user.setFollowersCount(userRepository.findFollowersByUserId(user.getUserId()).size());
-            user.setFollowingCount(userRepository.findFollowingByUserId(user.getUserId()).size());
+    public List<UserSummaryDto> getRecommendations(Long userId, int limit) {
+        // Stari oblik odgovora: prva stranica rangiranih preporuka
+        return getRecommendationPage(userId, limit, null).getItems().stream()
+                .map(RecommendationDto::toSummary)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RecommendationPageDto getRecommendationPage(Long userId, int size, String cursor) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        int limit = Math.min(size, maxRecommendationPageSize);
+        RecommendationCursor after = RecommendationCursor.decode(cursor);
+
+        // Jedan red vise od trazenog govori da li postoji sledeca stranica
+        boolean precomputed = userRepository.hasStoredRecommendations(userId);
+        List<RecommendationDto> rows = precomputed
+                ? userRepository.findStoredRecommendations(userId, after.score(), after.userId(), limit + 1)
+                : userRepository.findLiveRecommendations(userId, after.score(), after.userId(), limit + 1);
+
+        if (rows.size() <= limit) {
+            return new RecommendationPageDto(rows, null, precomputed);
         }
-        return recommendations;
+        List<RecommendationDto> items = rows.subList(0, limit);
+        RecommendationDto last = items.get(limit - 1);
+        String next = new RecommendationCursor(last.getMutualCount(), last.getUserId()).encode();
+        return new RecommendationPageDto(items, next, precomputed);
     }
 
     @Override
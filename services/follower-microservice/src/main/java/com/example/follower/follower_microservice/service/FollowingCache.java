@@ -0,0 +1,213 @@
+package com.example.follower.follower_microservice.service;
+
+import com.example.follower.follower_microservice.repository.AsyncFollowReads;
+import com.example.follower.follower_microservice.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Outgoing adjacency of recently checked users: userId -> sorted long[] of followed ids, so a
+ * membership check is a binary search instead of a Neo4j round trip. Bounded by bytes, not
+ * entries. A user following more than max-entry-ids accounts gets a small OVERSIZE marker
+ * instead: their list is loaded once to find that out, and from then on isFollowing and
+ * followedAmong run the indexed single-user queries. The marker survives invalidation and
+ * only goes away with the ttl.
+ *
+ * Writes made through this instance invalidate the follower's entry after their transaction
+ * commits. Writes from other instances or straight to Neo4j are only picked up when the entry
+ * expires (ttl).
+ *
+ * Entries are futures, so the blocking methods and the *Async ones (driver async API) share
+ * one cache; an invalidation also drops a load still in flight, which then is not cached.
+ */
+@Component
+@Profile("!embedded-graph")
+public class FollowingCache {
+
+    // long[] header + Caffeine node, per entry
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    // Poredi se po identitetu; prazna lista pracenih je poseban, obican niz
+    private static final long[] OVERSIZE = new long[0];
+
+    private final UserRepository userRepository;
+    private final AsyncFollowReads asyncReads;
+    private final AsyncCache<Long, long[]> cache;
+    private final int maxEntryIds;
+
+    public FollowingCache(UserRepository userRepository, AsyncFollowReads asyncReads,
+                          @Value("${follower.following-cache.max-size:64MB}") DataSize maxSize,
+                          @Value("${follower.following-cache.max-entry-ids:100000}") int maxEntryIds,
+                          @Value("${follower.following-cache.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.asyncReads = asyncReads;
+        this.maxEntryIds = maxEntryIds;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long userId, long[] ids) -> weight(ids))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public boolean isFollowing(long followerId, long followedId) {
+        long[] following = following(followerId);
+        if (following == OVERSIZE) {
+            return userRepository.isFollowing(followerId, followedId);
+        }
+        return Arrays.binarySearch(following, followedId) >= 0;
+    }
+
+    // Podskup kandidata koje korisnik prati, u redosledu kandidata
+    public List<Long> followedAmong(long followerId, Collection<Long> candidateIds) {
+        long[] following = following(followerId);
+        if (following == OVERSIZE) {
+            return inCandidateOrder(candidateIds, userRepository.findFollowedAmong(followerId, nonNull(candidateIds)));
+        }
+        return followedAmong(following, candidateIds);
+    }
+
+    public List<Long> followingIds(long userId) {
+        long[][] loaded = new long[1][];
+        long[] ids = cache.synchronous().get(userId, id -> cacheable(loaded[0] = load(id)));
+        if (ids == OVERSIZE) {
+            // Cela lista se ionako vraca: ona koju je ovaj poziv ucitao, ili nova
+            ids = loaded[0] != null ? loaded[0] : load(userId);
+        }
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    public CompletableFuture<Boolean> isFollowingAsync(long followerId, long followedId) {
+        return followingAsync(followerId).thenCompose(following -> following == OVERSIZE
+                ? asyncReads.isFollowing(followerId, followedId)
+                : CompletableFuture.completedFuture(Arrays.binarySearch(following, followedId) >= 0));
+    }
+
+    public CompletableFuture<List<Long>> followedAmongAsync(long followerId, Collection<Long> candidateIds) {
+        return followingAsync(followerId).thenCompose(following -> following == OVERSIZE
+                ? asyncReads.followedAmong(followerId, nonNull(candidateIds))
+                        .thenApply(followed -> inCandidateOrder(candidateIds, followed))
+                : CompletableFuture.completedFuture(followedAmong(following, candidateIds)));
+    }
+
+    public CompletableFuture<List<Long>> followingIdsAsync(long userId) {
+        AtomicReference<CompletableFuture<long[]>> loading = new AtomicReference<>();
+        return cache.get(userId, (id, executor) -> {
+            CompletableFuture<long[]> load = loadAsync(id);
+            loading.set(load);
+            return load.thenApply(this::cacheable);
+        }).thenCompose(ids -> {
+            if (ids != OVERSIZE) return CompletableFuture.completedFuture(ids);
+            return loading.get() != null ? loading.get() : loadAsync(userId);
+        }).thenApply(ids -> Arrays.stream(ids).boxed().toList());
+    }
+
+    private static List<Long> followedAmong(long[] following, Collection<Long> candidateIds) {
+        List<Long> followed = new ArrayList<>();
+        for (Long candidate : candidateIds) {
+            if (candidate != null && Arrays.binarySearch(following, candidate) >= 0) {
+                followed.add(candidate);
+            }
+        }
+        return followed;
+    }
+
+    private static List<Long> inCandidateOrder(Collection<Long> candidateIds, Collection<Long> followed) {
+        Set<Long> set = new HashSet<>(followed);
+        return candidateIds.stream().filter(c -> c != null && set.contains(c)).toList();
+    }
+
+    private static List<Long> nonNull(Collection<Long> candidateIds) {
+        return candidateIds.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Drops the entries once the current transaction commits (right away without one). Doing it
+     * earlier would let a concurrent reader cache the pre-commit adjacency again. OVERSIZE
+     * markers stay: they hold no ids that could go stale.
+     */
+    public void invalidateAfterCommit(Collection<Long> followerIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(followerIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(ids);
+                }
+            });
+        } else {
+            invalidate(followerIds);
+        }
+    }
+
+    private void invalidate(Collection<Long> followerIds) {
+        for (Long id : followerIds) {
+            // Ucitavanje u toku se uvek uklanja
+            cache.asMap().computeIfPresent(id, (k, entry) -> isOversize(entry) ? entry : null);
+        }
+    }
+
+    private static boolean isOversize(CompletableFuture<long[]> entry) {
+        return entry.isDone() && !entry.isCompletedExceptionally() && entry.join() == OVERSIZE;
+    }
+
+    public AsyncCache<Long, long[]> cache() {
+        return cache;
+    }
+
+    // Zauzece u bajtovima, za metriku
+    public long weightedSize() {
+        return cache.synchronous().policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    // Sortirani id-jevi ili OVERSIZE. invalidate() uklanja i ucitavanje koje je u toku, pa
+    // ucitavanje koje se preklopi sa upisom ne moze da ostavi staru listu u kesu
+    private long[] following(long userId) {
+        return cache.synchronous().get(userId, id -> cacheable(load(id)));
+    }
+
+    private CompletableFuture<long[]> followingAsync(long userId) {
+        return cache.get(userId, (id, executor) -> loadAsync(id).thenApply(this::cacheable));
+    }
+
+    private long[] cacheable(long[] ids) {
+        return ids.length <= maxEntryIds ? ids : OVERSIZE;
+    }
+
+    private long[] load(Long userId) {
+        return sortedDistinct(userRepository.findFollowingUserIds(userId));
+    }
+
+    private CompletableFuture<long[]> loadAsync(Long userId) {
+        return asyncReads.followingIds(userId).thenApply(FollowingCache::sortedDistinct).toCompletableFuture();
+    }
+
+    private static long[] sortedDistinct(List<Long> ids) {
+        return ids.stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private static int weight(long[] ids) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) ids.length * Long.BYTES + ENTRY_OVERHEAD_BYTES);
+    }
+}
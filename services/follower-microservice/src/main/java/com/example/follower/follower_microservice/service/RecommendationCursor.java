@@ -0,0 +1,30 @@
+package com.example.follower.follower_microservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a recommendation list ordered by (score desc, userId asc).
+ * Clients only ever see the encoded token.
+ */
+public record RecommendationCursor(long score, long userId) {
+
+    // Sits before the best possible candidate, used for the first page
+    private static final RecommendationCursor START = new RecommendationCursor(Long.MAX_VALUE, Long.MIN_VALUE);
+
+    public static RecommendationCursor decode(String token) {
+        if (token == null || token.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            return new RecommendationCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid recommendation cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = score + ":" + userId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.follower.follower_microservice.service;
+
+import com.example.follower.follower_microservice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically recomputes the top-K RECOMMENDED relationships of every user, walking users
+ * in userId order, batch-size per transaction. A failed batch is logged and skipped; its
+ * users keep their previous recommendations until the next run.
+ */
+@Component
+@Profile("!embedded-graph")
+public class RecommendationRefreshJob {
+    private static final Logger log = LoggerFactory.getLogger(RecommendationRefreshJob.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RecommendationRefreshJob(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                                    @Value("${follower.recommendations.refresh-enabled:true}") boolean enabled,
+                                    @Value("${follower.recommendations.refresh-batch-size:200}") int batchSize) {
+        this.userRepository = userRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${follower.recommendations.refresh-initial-delay:PT5M}",
+            fixedDelayString = "${follower.recommendations.refresh-interval:PT6H}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refreshAll();
+        }
+    }
+
+    // Vraca broj obradjenih korisnika, ili -1 ako je osvezavanje vec u toku
+    public long refreshAll() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        long started = System.nanoTime();
+        long users = 0;
+        long written = 0;
+        long failed = 0;
+        try {
+            long after = Long.MIN_VALUE;
+            while (true) {
+                List<Long> userIds;
+                try {
+                    userIds = userRepository.findUserIdsAfter(after, batchSize);
+                } catch (RuntimeException e) {
+                    log.warn("Recommendation refresh stopped after {} users: {}", users, e.toString());
+                    return users;
+                }
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                after = userIds.get(userIds.size() - 1);
+                try {
+                    Long count = tx.execute(s -> userRepository.storeRecommendations(userIds));
+                    written += count == null ? 0 : count;
+                } catch (RuntimeException e) {
+                    failed += userIds.size();
+                    log.warn("Recommendation refresh failed for users {}..{}: {}",
+                            userIds.get(0), after, e.toString());
+                }
+                users += userIds.size();
+            }
+            log.info("Recommendations refreshed for {} users ({} failed), {} written in {} ms",
+                    users, failed, written, (System.nanoTime() - started) / 1_000_000);
+            return users;
+        } finally {
+            running.set(false);
+        }
+    }
+}
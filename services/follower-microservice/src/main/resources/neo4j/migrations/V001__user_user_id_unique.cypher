@@ -0,0 +1,4 @@
+// Every query anchors on User {userId}; the constraint's backing range index turns those
+// lookups (and MERGE) into index seeks instead of a label scan, and stops duplicate users
+CREATE CONSTRAINT user_user_id_unique IF NOT EXISTS
+FOR (u:User) REQUIRE u.userId IS UNIQUE;
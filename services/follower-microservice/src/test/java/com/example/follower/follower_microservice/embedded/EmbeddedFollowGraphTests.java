@@ -0,0 +1,136 @@
+package com.example.follower.follower_microservice.embedded;
+
+import com.example.follower.follower_microservice.dto.RecommendationDto;
+import com.example.follower.follower_microservice.dto.RecommendationPageDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The in-process graph against its own files: a restart (with or without a clean shutdown)
+ * must see every acknowledged write, and the service must answer like the Neo4j one.
+ */
+class EmbeddedFollowGraphTests {
+
+	@TempDir
+	Path dir;
+
+	private final List<EmbeddedFollowGraph> opened = new ArrayList<>();
+
+	@AfterEach
+	void closeGraphs() throws IOException {
+		for (EmbeddedFollowGraph graph : opened) {
+			graph.close();
+		}
+	}
+
+	// Bez close(): isto sto i pad procesa, ostaje samo ono sto je u logu i snapshot-u
+	private EmbeddedFollowGraph open(int compactAfter) {
+		EmbeddedFollowGraph graph = new EmbeddedFollowGraph(dir.toString(), true, compactAfter);
+		opened.add(graph);
+		return graph;
+	}
+
+	@Test
+	void writesSurviveRestartFromLogAlone() {
+		EmbeddedFollowGraph graph = open(1_000_000);
+		assertTrue(graph.follow(1, 2));
+		assertTrue(graph.follow(1, 3));
+		assertTrue(graph.follow(3, 1));
+		assertFalse(graph.follow(1, 2));
+		assertTrue(graph.unfollow(1, 3));
+		graph.upsertUser(2, "ana");
+
+		EmbeddedFollowGraph restarted = open(1_000_000);
+		assertArrayEquals(new long[]{2}, restarted.followingIds(1));
+		assertArrayEquals(new long[]{3}, restarted.followerIds(1, 0));
+		assertEquals("ana", restarted.followingSummaries(1).get(0).getUsername());
+		assertEquals("User3", restarted.followerSummaries(1).get(0).getUsername());
+		assertEquals(2, restarted.followCount());
+	}
+
+	@Test
+	void snapshotPlusNewerLogIsReplayed() throws IOException {
+		EmbeddedFollowGraph graph = open(2);
+		for (long followed = 2; followed <= 6; followed++) {
+			graph.follow(1, followed);
+		}
+		assertTrue(graph.snapshot());
+		assertFalse(graph.snapshot());
+		graph.unfollow(1, 4);
+		graph.follow(7, 1);
+
+		EmbeddedFollowGraph restarted = open(2);
+		assertArrayEquals(new long[]{2, 3, 5, 6}, restarted.followingIds(1));
+		assertTrue(restarted.isFollowing(7, 1));
+		assertEquals(7, restarted.userCount());
+		try (Stream<Path> logs = Files.list(dir)) {
+			assertTrue(logs.noneMatch(p -> p.getFileName().toString().equals("graph-000000000000.log")));
+		}
+	}
+
+	@Test
+	void tornLogTailIsCutOff() throws IOException {
+		EmbeddedFollowGraph graph = open(1_000_000);
+		graph.follow(1, 2);
+		Path log;
+		try (Stream<Path> logs = Files.list(dir)) {
+			log = logs.filter(p -> p.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+		}
+		// Pola FOLLOW zapisa, kao da je proces pao usred upisa
+		Files.write(log, new byte[]{GraphLog.FOLLOW, 0, 0, 0, 0, 0, 0, 0, 9, 0}, StandardOpenOption.APPEND);
+
+		EmbeddedFollowGraph restarted = open(1_000_000);
+		assertArrayEquals(new long[]{2}, restarted.followingIds(1));
+		assertEquals(21, Files.size(log));
+		restarted.follow(1, 3);
+
+		assertArrayEquals(new long[]{2, 3}, open(1_000_000).followingIds(1));
+	}
+
+	@Test
+	void serviceMatchesNeo4jSemantics() {
+		EmbeddedFollowerService service = new EmbeddedFollowerService(open(1_000_000), 500, 200, 100);
+		assertThrows(IllegalArgumentException.class, () -> service.followUser(1L, 1L));
+		assertTrue(service.followUser(1L, 2L));
+		assertThrows(IllegalStateException.class, () -> service.followUser(1L, 2L));
+		assertFalse(service.unfollowUser(1L, 1L));
+		assertFalse(service.unfollowUser(2L, 1L));
+		assertEquals(List.of(2L), service.getFollowedAmong(1L, List.of(3L, 2L)));
+		assertNull(service.createOrUpdateUser(9L, null).getUsername());
+		assertEquals("User2", service.createOrUpdateUser(2L, null).getUsername());
+	}
+
+	@Test
+	void recommendationsAreRankedAndPaged() {
+		EmbeddedFollowGraph graph = open(3);
+		// 1 prati 2, 3 i 4; 10 prate sva trojica, 11 dvojica, 12 jedan, 2 prati i 1 (izuzet)
+		graph.followAll(new long[]{1, 1, 1, 2, 3, 4, 2, 3, 4, 2}, new long[]{2, 3, 4, 10, 10, 10, 11, 11, 12, 1});
+		EmbeddedFollowerService service = new EmbeddedFollowerService(graph, 500, 200, 100);
+
+		RecommendationPageDto first = service.getRecommendationPage(1L, 2, null);
+		assertEquals(List.of(10L, 11L), first.getItems().stream().map(RecommendationDto::getUserId).toList());
+		assertEquals(3, first.getItems().get(0).getMutualCount());
+		assertEquals(3, first.getItems().get(0).getFollowersCount());
+		assertFalse(first.isPrecomputed());
+
+		RecommendationPageDto second = service.getRecommendationPage(1L, 2, first.getNextCursor());
+		assertEquals(List.of(12L), second.getItems().stream().map(RecommendationDto::getUserId).toList());
+		assertNull(second.getNextCursor());
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.follower.follower_microservice.embedded;
+
+import com.example.follower.follower_microservice.dto.FollowRequest;
+import com.example.follower.follower_microservice.service.FollowBatchService;
+import com.example.follower.follower_microservice.service.FollowerService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Same workload against the Neo4j services (in-process Neo4j) and the embedded graph:
+ * single follows, isFollowing checks and first recommendation pages, on a graph whose
+ * followees are skewed towards low user ids. Only runs with mvn -Pbenchmark test; sizes
+ * via -Dbenchmark.users, -Dbenchmark.follows-per-user, -Dbenchmark.operations.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"follower.recommendations.refresh-enabled=false",
+		"follower.request-log.sample-rate=0"
+})
+class EmbeddedGraphBenchmarkTests {
+	private static final Logger log = LoggerFactory.getLogger(EmbeddedGraphBenchmarkTests.class);
+
+	private static final int USERS = Integer.getInteger("benchmark.users", 20_000);
+	private static final int FOLLOWS_PER_USER = Integer.getInteger("benchmark.follows-per-user", 20);
+	private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 5_000);
+
+	private static final Neo4j neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build();
+
+	@DynamicPropertySource
+	static void neo4jProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.neo4j.uri", neo4j::boltURI);
+		registry.add("spring.neo4j.authentication.username", () -> "neo4j");
+		registry.add("spring.neo4j.authentication.password", () -> "");
+	}
+
+	@AfterAll
+	static void stopNeo4j() {
+		neo4j.close();
+	}
+
+	@Autowired
+	FollowerService neo4jFollowers;
+
+	@Autowired
+	FollowBatchService neo4jBatch;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void compareWithNeo4j() throws Exception {
+		EmbeddedFollowGraph graph = new EmbeddedFollowGraph(dir.toString(), true, 1_000_000);
+		try {
+			EmbeddedFollowerService embeddedFollowers = new EmbeddedFollowerService(graph, 500, 200, 100);
+			EmbeddedFollowBatchService embeddedBatch = new EmbeddedFollowBatchService(graph, 1000, 10_000, 10_000);
+
+			List<FollowRequest> edges = generate();
+			log.info("Loading {} users, {} follows", USERS, edges.size());
+			long neo4jLoad = load(neo4jBatch, edges);
+			long embeddedLoad = load(embeddedBatch, edges);
+			log.info("{} load: {} edges/s", "neo4j", rate(edges.size(), neo4jLoad));
+			log.info("{} load: {} edges/s", "embedded", rate(edges.size(), embeddedLoad));
+			assertEquals(neo4jFollowers.getFollowingIds(1L), embeddedFollowers.getFollowingIds(1L));
+
+			run("neo4j", neo4jFollowers);
+			run("embedded", embeddedFollowers);
+		} finally {
+			graph.close();
+		}
+	}
+
+	private void run(String name, FollowerService followers) {
+		SplittableRandom random = new SplittableRandom(7);
+		// Nove ivice (od korisnika van grafa), pa nijedan follow ne zavrsi kao 409
+		long follow = time(i -> followers.followUser(USERS + 1 + i, 1 + random.nextLong(USERS)));
+		long check = time(i -> followers.isFollowing(1 + random.nextLong(USERS), skewed(random)));
+		long recommend = time(i -> followers.getRecommendationPage(1 + random.nextLong(USERS), 20, null));
+		log.info("{}: follow {} ops/s, isFollowing {} ops/s, recommendations {} pages/s", name,
+				rate(OPERATIONS, follow), rate(OPERATIONS, check), rate(OPERATIONS, recommend));
+	}
+
+	private static long time(LongConsumer operation) {
+		for (long i = 0; i < OPERATIONS / 10; i++) {
+			operation.accept(OPERATIONS + i);
+		}
+		long started = System.nanoTime();
+		for (long i = 0; i < OPERATIONS; i++) {
+			operation.accept(i);
+		}
+		return System.nanoTime() - started;
+	}
+
+	private static long load(FollowBatchService batch, List<FollowRequest> edges) {
+		long started = System.nanoTime();
+		for (int from = 0; from < edges.size(); from += 10_000) {
+			batch.followAll(edges.subList(from, Math.min(edges.size(), from + 10_000)));
+		}
+		return System.nanoTime() - started;
+	}
+
+	private static List<FollowRequest> generate() {
+		SplittableRandom random = new SplittableRandom(42);
+		List<FollowRequest> edges = new ArrayList<>(USERS * FOLLOWS_PER_USER);
+		for (long user = 1; user <= USERS; user++) {
+			for (int i = 0; i < FOLLOWS_PER_USER; i++) {
+				long followed = skewed(random);
+				if (followed != user) {
+					edges.add(new FollowRequest(user, followed));
+				}
+			}
+		}
+		return edges;
+	}
+
+	// Priblizno Zipf: mali id-jevi (popularni nalozi) su mnogo cesci
+	private static long skewed(SplittableRandom random) {
+		return Math.max(1, (long) Math.floor(Math.pow(USERS, random.nextDouble())));
+	}
+
+	private static long rate(long operations, long nanos) {
+		return operations * 1_000_000_000L / Math.max(1, nanos);
+	}
+}
@@ -0,0 +1,278 @@
+package com.example.follower.follower_microservice.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load harness for the hot UserRepository reads against an in-process Neo4j (no Docker):
+ * builds a synthetic follow graph with power-law out-degrees and Zipf-distributed followees,
+ * then runs isFollowing, findFollowingUserIds and findLiveRecommendations at every concurrency
+ * level for a fixed time and reports throughput and latency percentiles. Results go to the log
+ * and to target/load-tests/user-repository-{time}.csv, for sizing the neo4j container.
+ *
+ * Only runs with mvn -Pbenchmark test. Knobs (system properties):
+ * load.users (200000), load.follows-per-user (10, mean), load.concurrency (1,8,32),
+ * load.warmup (PT5S), load.duration (PT15S), load.seed (42). A few million edges need a few
+ * GB of heap; the graph lives in the test JVM.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"follower.recommendations.refresh-enabled=false",
+		"follower.request-log.sample-rate=0"
+})
+class UserRepositoryLoadTests {
+	private static final Logger log = LoggerFactory.getLogger(UserRepositoryLoadTests.class);
+
+	private static final int USERS = Integer.getInteger("load.users", 200_000);
+	private static final int FOLLOWS_PER_USER = Integer.getInteger("load.follows-per-user", 10);
+	private static final int[] CONCURRENCY = Arrays.stream(System.getProperty("load.concurrency", "1,8,32").split(","))
+			.mapToInt(c -> Integer.parseInt(c.trim()))
+			.toArray();
+	private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+	private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT15S"));
+	private static final long SEED = Long.getLong("load.seed", 42);
+
+	// Najveci broj pracenih po korisniku; rep Pareto raspodele je inace neogranicen
+	private static final int MAX_OUT_DEGREE = 5_000;
+	private static final int WRITE_BATCH = 50_000;
+
+	private static final Neo4j neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build();
+
+	@DynamicPropertySource
+	static void neo4jProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.neo4j.uri", neo4j::boltURI);
+		registry.add("spring.neo4j.authentication.username", () -> "neo4j");
+		registry.add("spring.neo4j.authentication.password", () -> "");
+	}
+
+	@AfterAll
+	static void stopNeo4j() {
+		neo4j.close();
+	}
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	Driver driver;
+
+	@Test
+	void readQueriesUnderLoad() throws Exception {
+		long edges = loadGraph();
+
+		List<Result> results = new ArrayList<>();
+		for (int threads : CONCURRENCY) {
+			results.add(run("isFollowing", threads, random ->
+					userRepository.isFollowing(anyUser(random), popularUser(random))));
+			results.add(run("findFollowingUserIds", threads, random ->
+					userRepository.findFollowingUserIds(anyUser(random))));
+			results.add(run("findLiveRecommendations", threads, random ->
+					userRepository.findLiveRecommendations(anyUser(random), Long.MAX_VALUE, Long.MIN_VALUE, 20)));
+		}
+
+		StringBuilder table = new StringBuilder(String.format("%n%-24s %7s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+				"query", "threads", "ops", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+		for (Result r : results) {
+			table.append(String.format("%-24s %7d %10d %8d %10.0f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+					r.query, r.threads, r.latencies.length, r.errors, r.throughput(),
+					r.percentile(50), r.percentile(90), r.percentile(99), r.percentile(99.9), r.percentile(100)));
+		}
+		log.info("{} users, {} follows, {} per level:{}", USERS, edges, DURATION, table);
+		Path csv = writeCsv(results);
+		log.info("Results written to {}", csv);
+
+		assertTrue(results.stream().allMatch(r -> r.latencies.length > 0));
+	}
+
+	private Result run(String query, int threads, Consumer<SplittableRandom> operation) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			measure(pool, threads, operation, WARMUP);
+			return new Result(query, threads, DURATION, measure(pool, threads, operation, DURATION));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	// Svaka nit radi dok ne istekne vreme i belezi trajanje svakog poziva u nanosekundama
+	private static Worker[] measure(ExecutorService pool, int threads, Consumer<SplittableRandom> operation,
+	                                Duration duration) throws Exception {
+		long deadline = System.nanoTime() + duration.toNanos();
+		Worker[] workers = new Worker[threads];
+		List<Future<?>> running = new ArrayList<>(threads);
+		for (int t = 0; t < threads; t++) {
+			Worker worker = workers[t] = new Worker(new SplittableRandom(SEED + t));
+			running.add(pool.submit(() -> {
+				while (System.nanoTime() < deadline) {
+					long started = System.nanoTime();
+					try {
+						operation.accept(worker.random);
+						worker.record(System.nanoTime() - started);
+					} catch (RuntimeException e) {
+						worker.errors++;
+					}
+				}
+			}));
+		}
+		for (Future<?> future : running) {
+			future.get();
+		}
+		return workers;
+	}
+
+	private long loadGraph() {
+		long started = System.nanoTime();
+		try (Session session = driver.session()) {
+			for (int from = 1; from <= USERS; from += WRITE_BATCH) {
+				Map<String, Object> range = Map.of("from", from, "to", Math.min(USERS, from + WRITE_BATCH - 1));
+				session.executeWriteWithoutResult(tx -> tx.run(
+						"UNWIND range($from, $to) AS id CREATE (:User {userId: id, username: 'User' + id})",
+						range).consume());
+			}
+
+			SplittableRandom random = new SplittableRandom(SEED);
+			List<List<Long>> batch = new ArrayList<>(WRITE_BATCH);
+			Set<Long> followees = new HashSet<>();
+			long edges = 0;
+			for (long user = 1; user <= USERS; user++) {
+				followees.clear();
+				int degree = outDegree(random);
+				while (followees.size() < degree) {
+					long followed = popularUser(random);
+					if (followed != user) {
+						followees.add(followed);
+					}
+				}
+				for (Long followed : followees) {
+					batch.add(List.of(user, followed));
+				}
+				edges += followees.size();
+				if (batch.size() >= WRITE_BATCH) {
+					writeEdges(session, batch);
+				}
+			}
+			writeEdges(session, batch);
+			log.info("Loaded {} users and {} follows in {} s", USERS, edges, (System.nanoTime() - started) / 1_000_000_000);
+			return edges;
+		}
+	}
+
+	private static void writeEdges(Session session, List<List<Long>> batch) {
+		if (batch.isEmpty()) return;
+		List<List<Long>> edges = List.copyOf(batch);
+		session.executeWriteWithoutResult(tx -> tx.run(
+				"UNWIND $edges AS e " +
+				"MATCH (a:User {userId: e[0]}) MATCH (b:User {userId: e[1]}) " +
+				"CREATE (a)-[:FOLLOWS]->(b)", Map.of("edges", edges)).consume());
+		batch.clear();
+	}
+
+	// Pareto (alfa 2) sa zadatom srednjom vrednoscu: vecina prati malo naloga, retki hiljade
+	private static int outDegree(SplittableRandom random) {
+		double scale = FOLLOWS_PER_USER / 2.0;
+		double degree = scale / Math.sqrt(1.0 - random.nextDouble());
+		return (int) Math.min(Math.min(MAX_OUT_DEGREE, USERS - 1), Math.max(1, Math.round(degree)));
+	}
+
+	// Zipf (s = 1) po userId: nalog k je pracen priblizno srazmerno 1/k
+	private static long popularUser(SplittableRandom random) {
+		return Math.max(1, Math.min(USERS, (long) Math.pow(USERS, random.nextDouble())));
+	}
+
+	private static long anyUser(SplittableRandom random) {
+		return 1 + random.nextLong(USERS);
+	}
+
+	private static Path writeCsv(List<Result> results) throws IOException {
+		Path dir = Path.of("target", "load-tests");
+		Files.createDirectories(dir);
+		Path file = dir.resolve("user-repository-" + System.currentTimeMillis() + ".csv");
+		List<String> lines = new ArrayList<>();
+		lines.add("query,threads,users,follows_per_user,duration_s,ops,errors,ops_per_s,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+		for (Result r : results) {
+			lines.add(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f",
+					r.query, r.threads, USERS, FOLLOWS_PER_USER, DURATION.toSeconds(), r.latencies.length, r.errors,
+					r.throughput(), r.percentile(50), r.percentile(90), r.percentile(99), r.percentile(99.9),
+					r.percentile(100)));
+		}
+		return Files.write(file, lines);
+	}
+
+	private static final class Worker {
+		final SplittableRandom random;
+		long[] latencies = new long[1024];
+		int count;
+		long errors;
+
+		Worker(SplittableRandom random) {
+			this.random = random;
+		}
+
+		void record(long nanos) {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = nanos;
+		}
+	}
+
+	private static final class Result {
+		final String query;
+		final int threads;
+		final Duration duration;
+		final long[] latencies;
+		final long errors;
+
+		Result(String query, int threads, Duration duration, Worker[] workers) {
+			this.query = query;
+			this.threads = threads;
+			this.duration = duration;
+			this.latencies = Arrays.stream(workers)
+					.flatMapToLong(w -> Arrays.stream(w.latencies, 0, w.count))
+					.sorted()
+					.toArray();
+			this.errors = Arrays.stream(workers).mapToLong(w -> w.errors).sum();
+		}
+
+		double throughput() {
+			return latencies.length / (duration.toNanos() / 1e9);
+		}
+
+		// Milisekunde; 100 = najduzi poziv
+		double percentile(double p) {
+			if (latencies.length == 0) return Double.NaN;
+			int index = (int) Math.ceil(p / 100.0 * latencies.length) - 1;
+			return latencies[Math.max(0, Math.min(latencies.length - 1, index))] / 1e6;
+		}
+	}
+}
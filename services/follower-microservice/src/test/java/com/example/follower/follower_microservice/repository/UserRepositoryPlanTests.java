@@ -0,0 +1,161 @@
+package com.example.follower.follower_microservice.repository;
+
+import com.example.follower.follower_microservice.config.Neo4jSchemaMigrations;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.summary.Plan;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+import org.springframework.data.neo4j.repository.query.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the schema migrations against an in-process Neo4j and EXPLAINs every query of
+ * UserRepository and its fragments: none may plan to a scan over all (User) nodes.
+ */
+class UserRepositoryPlanTests {
+
+	private static final List<String> SCANS = List.of("AllNodesScan", "NodeByLabelScan");
+
+	// Unija parametara svih upita; visak parametara Neo4j ignorise
+	private static final Map<String, Object> PARAMS = Map.ofEntries(
+			Map.entry("userId", 1L),
+			Map.entry("followerId", 1L),
+			Map.entry("followedId", 2L),
+			Map.entry("followedIds", List.of(2L, 3L)),
+			Map.entry("userIds", List.of(1L, 2L)),
+			Map.entry("edges", List.of(Map.of("idx", 0, "followerId", 1L, "followedId", 2L))),
+			Map.entry("limit", 10L),
+			Map.entry("afterScore", Long.MAX_VALUE),
+			Map.entry("afterUserId", Long.MIN_VALUE),
+			Map.entry("hop1Cap", 500L),
+			Map.entry("hop2Cap", 200L),
+			Map.entry("topK", 100L));
+
+	private static Neo4j neo4j;
+	private static Driver driver;
+
+	@BeforeAll
+	static void startNeo4j() {
+		neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build();
+		driver = GraphDatabase.driver(neo4j.boltURI());
+		new Neo4jSchemaMigrations(driver, true).migrate();
+	}
+
+	@AfterAll
+	static void stopNeo4j() {
+		driver.close();
+		neo4j.close();
+	}
+
+	@Test
+	void migrationsAreAppliedOnce() {
+		assertEquals(0, new Neo4jSchemaMigrations(driver, true).migrate());
+		try (Session session = driver.session()) {
+			long constraints = session.run("SHOW CONSTRAINTS YIELD name WHERE name = 'user_user_id_unique' RETURN count(*)")
+					.single().get(0).asLong();
+			assertEquals(1, constraints);
+		}
+	}
+
+	@Test
+	void concurrentIdenticalFollowsCreateOnce() throws Exception {
+		String cypher = UserRepository.class.getMethod("mergeFollow", Long.class, Long.class)
+				.getAnnotation(Query.class).value();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			for (long followed = 100; followed < 120; followed++) {
+				Map<String, Object> params = Map.of("followerId", 99L, "followedId", followed);
+				List<Future<Boolean>> calls = new ArrayList<>();
+				for (int i = 0; i < 8; i++) {
+					calls.add(pool.submit(() -> {
+						try (Session session = driver.session()) {
+							return session.executeWrite(tx -> tx.run(cypher, params).single().get(0).asBoolean());
+						}
+					}));
+				}
+				int created = 0;
+				for (Future<Boolean> call : calls) {
+					if (call.get()) created++;
+				}
+				assertEquals(1, created, "follow 99 -> " + followed);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		try (Session session = driver.session()) {
+			assertEquals(0, session.run("MATCH ()-[r:FOLLOWS]->() WHERE r.created IS NOT NULL RETURN count(r)")
+					.single().get(0).asLong());
+		}
+	}
+
+	@Test
+	void batchMergeReportsEachNewEdgeOnce() {
+		List<Map<String, Object>> edges = List.of(
+				Map.of("idx", 0, "followerId", 199L, "followedId", 200L),
+				Map.of("idx", 1, "followerId", 199L, "followedId", 201L),
+				Map.of("idx", 2, "followerId", 199L, "followedId", 200L));
+		try (Session session = driver.session()) {
+			List<Integer> created = session.run(FollowBatchRepositoryImpl.MERGE_FOLLOWS, Map.of("edges", edges))
+					.list(r -> r.get("idx").asInt());
+			assertEquals(List.of(0, 1), created.stream().sorted().toList());
+			assertEquals(List.of(), session.run(FollowBatchRepositoryImpl.MERGE_FOLLOWS, Map.of("edges", edges))
+					.list(r -> r.get("idx").asInt()));
+		}
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("queries")
+	void queryDoesNotScanUsers(String name, String cypher) {
+		Plan plan;
+		try (Session session = driver.session()) {
+			plan = session.run("EXPLAIN " + cypher, PARAMS).consume().plan();
+		}
+		List<String> operators = new ArrayList<>();
+		collect(plan, operators);
+		assertTrue(operators.stream().noneMatch(op -> SCANS.stream().anyMatch(op::startsWith)),
+				name + " plans to a node scan: " + operators);
+	}
+
+	static Stream<Arguments> queries() {
+		Stream<Arguments> annotated = Arrays.stream(UserRepository.class.getDeclaredMethods())
+				.filter(m -> m.isAnnotationPresent(Query.class))
+				.map(m -> Arguments.of("UserRepository." + m.getName(), m.getAnnotation(Query.class).value()));
+		Stream<Arguments> fragments = Stream.of(
+				Arguments.of("mergeFollows", FollowBatchRepositoryImpl.MERGE_FOLLOWS),
+				Arguments.of("deleteFollows", FollowBatchRepositoryImpl.DELETE_FOLLOWS),
+				Arguments.of("followerIds", Neo4jFollowIdCursors.FOLLOWER_IDS),
+				Arguments.of("followingIds", Neo4jFollowIdCursors.FOLLOWING_IDS),
+				Arguments.of("followingSummaries", UserSummaryRepositoryImpl.FOLLOWING),
+				Arguments.of("followerSummaries", UserSummaryRepositoryImpl.FOLLOWERS),
+				Arguments.of("storedRecommendations", RecommendationRepositoryImpl.STORED),
+				Arguments.of("liveRecommendations", RecommendationRepositoryImpl.LIVE),
+				Arguments.of("storeRecommendations", RecommendationRepositoryImpl.STORE),
+				Arguments.of("hasStoredRecommendations", RecommendationRepositoryImpl.COMPUTED),
+				Arguments.of("userIdsAfter", RecommendationRepositoryImpl.USER_IDS_AFTER));
+		return Stream.concat(annotated, fragments);
+	}
+
+	private static void collect(Plan plan, List<String> operators) {
+		operators.add(plan.operatorType());
+		plan.children().forEach(child -> collect(child, operators));
+	}
+}
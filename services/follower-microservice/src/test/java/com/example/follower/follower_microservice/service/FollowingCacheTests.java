@@ -0,0 +1,57 @@
+package com.example.follower.follower_microservice.service;
+
+import com.example.follower.follower_microservice.repository.AsyncFollowReads;
+import com.example.follower.follower_microservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Users over max-entry-ids: their list is loaded once, after that checks are single queries.
+ */
+class FollowingCacheTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final FollowingCache cache = new FollowingCache(userRepository, mock(AsyncFollowReads.class),
+			DataSize.ofMegabytes(1), 3, Duration.ofMinutes(10));
+
+	@Test
+	void smallListsAreAnsweredFromTheCache() {
+		when(userRepository.findFollowingUserIds(1L)).thenReturn(List.of(5L, 2L));
+
+		assertTrue(cache.isFollowing(1, 2));
+		assertFalse(cache.isFollowing(1, 3));
+		assertEquals(List.of(5L), cache.followedAmong(1, List.of(4L, 5L)));
+
+		verify(userRepository, times(1)).findFollowingUserIds(1L);
+		verify(userRepository, times(0)).isFollowing(anyLong(), anyLong());
+	}
+
+	@Test
+	void oversizeUsersAreLoadedOnceThenQueriedDirectly() {
+		when(userRepository.findFollowingUserIds(1L)).thenReturn(List.of(2L, 3L, 4L, 5L));
+		when(userRepository.isFollowing(1L, 3L)).thenReturn(true);
+		when(userRepository.findFollowedAmong(1L, List.of(5L, 4L))).thenReturn(List.of(4L, 5L));
+
+		assertTrue(cache.isFollowing(1, 3));
+		assertTrue(cache.isFollowing(1, 3));
+		cache.invalidateAfterCommit(List.of(1L));
+		assertEquals(List.of(5L, 4L), cache.followedAmong(1, List.of(5L, 4L)));
+		assertEquals(List.of(2L, 3L, 4L, 5L), cache.followingIds(1));
+
+		// Jednom za otkrivanje ogranicenja, jednom za followingIds koji trazi celu listu
+		verify(userRepository, times(2)).findFollowingUserIds(1L);
+		verify(userRepository, times(2)).isFollowing(1L, 3L);
+	}
+}